@@ -31,10 +31,17 @@ public class Constants {
     public static final int DEFAULT_PORT = -1;
     public static final int DEFAULT_DW_CHECK_INTERVAL = 15;
     public static final int DEFAULT_RETRY_CONN_INTERVAL = 5000;
+    public static final int DEFAULT_RETRY_CONN_MAX_INTERVAL = 60000;
+    public static final int DEFAULT_HOST_RESOLUTION_TIMEOUT_MS = 5000;
 
     public static final String ZOOKEEPER_HOST_DELIMITER = ",";
     public static final String HOST_PORT_DELIMITER = ":";
     public static final String PATH_DELIMITER = "/";
 
+    /**
+     * Prefix of the node data tag carrying the resolved address of the published host
+     */
+    public static final String ADDRESS_TAG_PREFIX = "address:";
+
     public static final Set<String> LOCAL_ADDRESSES = ImmutableSet.of("127.0.0.1", "127.0.1.1", "localhost");
 }
@@ -19,29 +19,46 @@ package io.appform.dropwizard.discovery.bundle;
 
 import static io.appform.dropwizard.discovery.bundle.Constants.LOCAL_ADDRESSES;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dev.failsafe.Failsafe;
 import io.appform.dropwizard.discovery.bundle.healthchecks.InitialDelayChecker;
 import io.appform.dropwizard.discovery.bundle.healthchecks.InternalHealthChecker;
+import io.appform.dropwizard.discovery.bundle.healthchecks.NodeIdCheck;
 import io.appform.dropwizard.discovery.bundle.healthchecks.RotationCheck;
+import io.appform.dropwizard.discovery.bundle.id.FileLockNodeIdProvider;
 import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.NodeIdLeaseKeeper;
 import io.appform.dropwizard.discovery.bundle.id.NodeIdManager;
+import io.appform.dropwizard.discovery.bundle.id.NodeIdProvider;
+import io.appform.dropwizard.discovery.bundle.id.StaticNodeIdProvider;
 import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstraint;
+import io.appform.dropwizard.discovery.bundle.id.serde.IdModule;
+import io.appform.dropwizard.discovery.bundle.id.serde.IdParamConverterProvider;
 import io.appform.dropwizard.discovery.bundle.monitors.DropwizardHealthMonitor;
 import io.appform.dropwizard.discovery.bundle.monitors.DropwizardServerStartupCheck;
 import io.appform.dropwizard.discovery.bundle.resolvers.DefaultNodeInfoResolver;
 import io.appform.dropwizard.discovery.bundle.resolvers.DefaultPortSchemeResolver;
 import io.appform.dropwizard.discovery.bundle.resolvers.NodeInfoResolver;
 import io.appform.dropwizard.discovery.bundle.resolvers.PortSchemeResolver;
+import io.appform.dropwizard.discovery.bundle.retry.ConnectionRetryPolicy;
+import io.appform.dropwizard.discovery.bundle.retry.JitteredExponentialBackoffRetry;
+import io.appform.dropwizard.discovery.bundle.retry.RateLimitedZookeeperFactory;
 import io.appform.dropwizard.discovery.bundle.rotationstatus.BIRTask;
 import io.appform.dropwizard.discovery.bundle.rotationstatus.DropwizardServerStatus;
 import io.appform.dropwizard.discovery.bundle.rotationstatus.OORTask;
 import io.appform.dropwizard.discovery.bundle.rotationstatus.RotationStatus;
 import io.appform.dropwizard.discovery.bundle.selectors.HierarchicalEnvironmentAwareShardSelector;
 import io.appform.dropwizard.discovery.bundle.util.ConfigurationUtils;
+import io.appform.dropwizard.discovery.bundle.util.HostAddressResolver;
+import io.appform.dropwizard.discovery.bundle.util.LifecycleTimeline;
 import io.appform.ranger.client.RangerClient;
 import io.appform.ranger.client.zk.SimpleRangerZKClient;
 import io.appform.ranger.common.server.ShardInfo;
@@ -61,20 +78,27 @@ import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 import java.io.IOException;
-import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.RetryForever;
+import org.apache.curator.utils.DefaultZookeeperFactory;
 
 /**
  * A dropwizard bundle for service discovery.
@@ -82,11 +106,17 @@ import org.apache.curator.retry.RetryForever;
 @SuppressWarnings("unused")
 @Slf4j
 public abstract class ServiceDiscoveryBundle<T extends Configuration> implements ConfiguredBundle<T> {
-
+    private static final ExecutorService LIFECYCLE_PHASES = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("discovery-lifecycle-%d")
+                    .setDaemon(true)
+                    .build());
     private final List<Healthcheck> healthchecks = Lists.newArrayList();
     private final List<IdValidationConstraint> globalIdConstraints;
     private ServiceDiscoveryConfiguration serviceDiscoveryConfiguration;
     private ServiceProvider<ShardInfo, ZkNodeDataSerializer<ShardInfo>> serviceProvider;
+    private HostAddressResolver hostAddressResolver;
+    private ServiceDiscoveryManager serviceDiscoveryManager;
 
     @Getter
     private CuratorFramework curator;
@@ -124,6 +154,8 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
         val objectMapper = environment.getObjectMapper();
         val namespace = serviceDiscoveryConfiguration.getNamespace();
         val serviceName = getServiceName(configuration);
+        hostAddressResolver = new HostAddressResolver(
+                Duration.ofMillis(serviceDiscoveryConfiguration.getHostResolutionTimeoutMs()), environment.metrics());
         val hostname = getHost();
         val port = getPort(configuration);
         val initialCriteria = getInitialCriteria(configuration);
@@ -131,17 +163,28 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
         val shardSelector = getShardSelector(configuration);
         rotationStatus = new RotationStatus(serviceDiscoveryConfiguration.isInitialRotationStatus());
         serverStatus = new DropwizardServerStatus(false);
-        curator = CuratorFrameworkFactory.builder()
+        val curatorBuilder = CuratorFrameworkFactory.builder()
                 .connectString(serviceDiscoveryConfiguration.getZookeeper())
                 .namespace(namespace)
-                .retryPolicy(new RetryForever(serviceDiscoveryConfiguration.getConnectionRetryIntervalMillis()))
-                .build();
+                .retryPolicy(buildRetryPolicy());
+        if (serviceDiscoveryConfiguration.getSessionEstablishmentIntervalMillis() > 0) {
+            curatorBuilder.zookeeperFactory(new RateLimitedZookeeperFactory(
+                    new DefaultZookeeperFactory(), serviceDiscoveryConfiguration.getSessionEstablishmentIntervalMillis()));
+        }
+        curator = curatorBuilder.build();
+        serviceDiscoveryManager = new ServiceDiscoveryManager(serviceName, environment.metrics());
         serviceProvider = buildServiceProvider(environment, objectMapper, namespace, serviceName, hostname, port,
                 portScheme);
         serviceDiscoveryClient = buildDiscoveryClient(environment, namespace, serviceName, initialCriteria,
                 useInitialCriteria, shardSelector);
+        IdGenerator.registerMetrics(environment.metrics());
+        if (serviceDiscoveryConfiguration.isSerializeIdsAsStrings()) {
+            objectMapper.registerModule(new IdModule());
+            environment.jersey()
+                    .register(new IdParamConverterProvider());
+        }
         environment.lifecycle()
-                .manage(new ServiceDiscoveryManager(serviceName));
+                .manage(serviceDiscoveryManager);
         environment.jersey()
                 .register(new InfoResource(serviceDiscoveryClient));
         environment.admin()
@@ -166,6 +209,59 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
         return new DefaultPortSchemeResolver<>();
     }
 
+    /**
+     * Creates the provider for the node id used in id generation. Called when the bundle is started, after curator has
+     * been started. The default picks the provider set in {@link ServiceDiscoveryConfiguration#getNodeIdProvider()}.
+     */
+    protected NodeIdProvider createNodeIdProvider(String serviceName, MetricRegistry metricRegistry) {
+        return createNodeIdProvider(serviceDiscoveryConfiguration, curator, serviceName, metricRegistry);
+    }
+
+    @VisibleForTesting
+    static NodeIdProvider createNodeIdProvider(
+            ServiceDiscoveryConfiguration configuration,
+            CuratorFramework curator,
+            String serviceName,
+            MetricRegistry metricRegistry) {
+        switch (configuration.getNodeIdProvider()) {
+            case STATIC:
+                Preconditions.checkNotNull(configuration.getNodeId(),
+                                           "nodeId needs to be set for the STATIC node id provider");
+                return new StaticNodeIdProvider(configuration.getNodeId());
+            case FILE_LOCK:
+                Preconditions.checkArgument(!Strings.isNullOrEmpty(configuration.getNodeIdLockDirectory()),
+                                            "nodeIdLockDirectory needs to be set for the FILE_LOCK node id provider");
+                Preconditions.checkArgument(null != configuration.getNodeIdRangeStart()
+                                                    && null != configuration.getNodeIdRangeSize(),
+                                            "nodeIdRangeStart and nodeIdRangeSize need to be set for the FILE_LOCK "
+                                                    + "node id provider, with disjoint ranges on every host");
+                return new FileLockNodeIdProvider(Paths.get(configuration.getNodeIdLockDirectory()),
+                                                  configuration.getNodeIdRangeStart(),
+                                                  configuration.getNodeIdRangeSize());
+            case ZOOKEEPER:
+            default:
+                val hintFile = configuration.getNodeIdHintFile();
+                return new NodeIdManager(curator,
+                                         serviceName,
+                                         configuration.getNodeIdMaxAttempts(),
+                                         Duration.ofMillis(configuration.getNodeIdTimeoutMs()),
+                                         metricRegistry,
+                                         Strings.isNullOrEmpty(hintFile) ? null : Paths.get(hintFile));
+        }
+    }
+
+    @VisibleForTesting
+    static dev.failsafe.RetryPolicy<Integer> nodeIdRetryPolicy(Duration timeout) {
+        return dev.failsafe.RetryPolicy.<Integer>builder()
+                .abortOn(InterruptedException.class)
+                .withBackoff(Duration.ofMillis(500), Duration.ofSeconds(30))
+                .withMaxRetries(-1)
+                .withMaxDuration(timeout)
+                .onRetry(event -> log.warn("Could not acquire node id for id generation, retrying. Attempt: {}",
+                                           event.getAttemptCount(), event.getLastException()))
+                .build();
+    }
+
     /**
      * Override the following if you require.
      **/
@@ -191,16 +287,22 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
     }
 
     protected String getHost() throws UnknownHostException {
+        val start = System.nanoTime();
         val host = ConfigurationUtils.resolveNonEmptyPublishedHost(serviceDiscoveryConfiguration.getPublishedHost());
+        val zkHosts = ConfigurationUtils.resolveZookeeperHosts(serviceDiscoveryConfiguration.getZookeeper());
 
-        val publishedHostAddress = InetAddress.getByName(host)
+        //All lookups run together, so startup waits for the slowest one instead of all of them in turn
+        hostAddressResolver.prefetch(Collections.singleton(host));
+        hostAddressResolver.prefetch(zkHosts);
+
+        val publishedHostAddress = hostAddressResolver.resolve(host)
                 .getHostAddress();
 
-        val zkHostAddresses = ConfigurationUtils.resolveZookeeperHosts(serviceDiscoveryConfiguration.getZookeeper())
+        val zkHostAddresses = zkHosts
                 .stream()
                 .map(zkHost -> {
                     try {
-                        return InetAddress.getByName(zkHost)
+                        return hostAddressResolver.resolve(zkHost)
                                 .getHostAddress();
                     } catch (UnknownHostException e) {
                         throw new IllegalArgumentException(
@@ -208,6 +310,8 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
                     }
                 })
                 .collect(Collectors.toSet());
+        log.info("Resolved published host and {} zookeeper host(s) in {} ms",
+                 zkHosts.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
 
         Preconditions.checkArgument(
                 !LOCAL_ADDRESSES.contains(publishedHostAddress) || LOCAL_ADDRESSES.containsAll(zkHostAddresses),
@@ -260,9 +364,11 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
                                                                                              String serviceName,
                                                                                              String hostname,
                                                                                              int port,
-                                                                                             String portScheme) {
+                                                                                             String portScheme)
+            throws UnknownHostException {
         val nodeInfoResolver = createNodeInfoResolver();
-        val nodeInfo = nodeInfoResolver.resolve(serviceDiscoveryConfiguration);
+        val nodeInfo = withPublishedAddress(nodeInfoResolver.resolve(serviceDiscoveryConfiguration), hostname,
+                                            objectMapper);
         val initialDelayForMonitor = serviceDiscoveryConfiguration.getInitialDelaySeconds() > 1
                                      ? serviceDiscoveryConfiguration.getInitialDelaySeconds() - 1
                                      : 0;
@@ -289,6 +395,7 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
                 .withPort(port)
                 .withHealthcheck(new InternalHealthChecker(healthchecks))
                 .withHealthcheck(new RotationCheck(rotationStatus))
+                .withHealthcheck(new NodeIdCheck(serviceDiscoveryManager::isNodeIdUsable))
                 .withHealthcheck(new InitialDelayChecker(serviceDiscoveryConfiguration.getInitialDelaySeconds()))
                 .withHealthcheck(new DropwizardServerStartupCheck(environment, serverStatus))
                 .withIsolatedHealthMonitor(new DropwizardHealthMonitor(
@@ -304,28 +411,112 @@ public abstract class ServiceDiscoveryBundle<T extends Configuration> implements
         return serviceProviderBuilder.build();
     }
 
-    @AllArgsConstructor
+    private RetryPolicy buildRetryPolicy() {
+        val retryInterval = serviceDiscoveryConfiguration.getConnectionRetryIntervalMillis();
+        if (serviceDiscoveryConfiguration.getConnectionRetryPolicy() == ConnectionRetryPolicy.EXPONENTIAL_JITTER) {
+            return new JitteredExponentialBackoffRetry(
+                    retryInterval,
+                    Math.max(retryInterval, serviceDiscoveryConfiguration.getConnectionRetryMaxIntervalMillis()));
+        }
+        return new RetryForever(retryInterval);
+    }
+
+    private ShardInfo withPublishedAddress(ShardInfo nodeInfo, String hostname, ObjectMapper objectMapper)
+            throws UnknownHostException {
+        if (!serviceDiscoveryConfiguration.isPublishResolvedAddress() || null == nodeInfo) {
+            return nodeInfo;
+        }
+        val address = hostAddressResolver.resolve(hostname)
+                .getHostAddress();
+        val tags = new HashSet<String>();
+        if (null != nodeInfo.getTags()) {
+            nodeInfo.getTags()
+                    .stream()
+                    .filter(tag -> !tag.startsWith(Constants.ADDRESS_TAG_PREFIX))
+                    .forEach(tags::add);
+        }
+        tags.add(Constants.ADDRESS_TAG_PREFIX + address);
+        log.info("Publishing resolved address {} for host {}", address, hostname);
+        // Round trip through the node data mapper so that every published field is carried over, not just tags
+        final ObjectNode nodeData = objectMapper.valueToTree(nodeInfo);
+        nodeData.set("tags", objectMapper.valueToTree(tags));
+        return objectMapper.convertValue(nodeData, ShardInfo.class);
+    }
+
+    @RequiredArgsConstructor
     private class ServiceDiscoveryManager implements Managed {
 
         private final String serviceName;
+        private final MetricRegistry metricRegistry;
+        private NodeIdProvider nodeIdProvider;
+        private CompletableFuture<Integer> nodeId;
+        private volatile boolean nodeIdAcquired;
+        private volatile NodeIdLeaseKeeper leaseKeeper;
 
         @Override
         public void start() {
             log.debug("Starting the discovery manager");
-            curator.start();
-            serviceProvider.start();
-            serviceDiscoveryClient.start();
-            val nodeIdManager = new NodeIdManager(curator, serviceName);
-            IdGenerator.initialize(nodeIdManager.fixNodeId(), globalIdConstraints, Collections.emptyMap());
+            val timeline = new LifecycleTimeline("startup", ServiceDiscoveryBundle.class, metricRegistry,
+                                                 LIFECYCLE_PHASES);
+            timeline.run("curator", curator::start);
+            val provider = createNodeIdProvider(serviceName, metricRegistry);
+            Preconditions.checkNotNull(provider, "Node id provider can't be null");
+            nodeIdProvider = provider;
+            //Node id is acquired in the background and retried for up to the node id timeout. The node stays
+            //unhealthy and id generation blocks until then. Once retries run out, id generation fails with the
+            //provider's error.
+            val nodeIdTimeout = Duration.ofMillis(serviceDiscoveryConfiguration.getNodeIdTimeoutMs());
+            nodeId = Failsafe.with(nodeIdRetryPolicy(nodeIdTimeout))
+                    .with(LIFECYCLE_PHASES)
+                    .getAsync(provider::acquire);
+            nodeId.whenComplete((node, error) -> {
+                if (null != error) {
+                    log.error("Gave up acquiring node id for id generation", error);
+                    return;
+                }
+                if (provider instanceof NodeIdManager) {
+                    val keeper = new NodeIdLeaseKeeper((NodeIdManager) provider, metricRegistry);
+                    curator.getConnectionStateListenable().addListener(keeper);
+                    leaseKeeper = keeper;
+                }
+                nodeIdAcquired = true;
+            });
+            timeline.track("nodeId", nodeId);
+            IdGenerator.initializeAsync(nodeId, globalIdConstraints, Collections.emptyMap());
+            //Provider and client do their zookeeper setup independently of each other
+            timeline.await(timeline.runAsync("serviceProvider", serviceProvider::start),
+                           timeline.runAsync("discoveryClient", serviceDiscoveryClient::start));
+            timeline.finish();
             log.debug("Discovery manager has been successfully started.");
         }
 
+        boolean isNodeIdUsable() {
+            val keeper = leaseKeeper;
+            return nodeIdAcquired && (null == keeper || keeper.isLeaseHeld());
+        }
+
         @Override
         public void stop() {
-            serviceDiscoveryClient.stop();
-            serviceProvider.stop();
-            curator.close();
+            val timeline = new LifecycleTimeline("shutdown", ServiceDiscoveryBundle.class, metricRegistry,
+                                                 LIFECYCLE_PHASES);
+            timeline.await(timeline.runAsync("discoveryClient", serviceDiscoveryClient::stop),
+                           timeline.runAsync("serviceProvider", serviceProvider::stop));
+            timeline.run("nodeId", () -> {
+                nodeIdAcquired = false;
+                if (null != nodeId) {
+                    nodeId.cancel(true);
+                }
+                if (null != leaseKeeper) {
+                    curator.getConnectionStateListenable().removeListener(leaseKeeper);
+                    leaseKeeper.close();
+                }
+                if (null != nodeIdProvider) {
+                    nodeIdProvider.close();
+                }
+            });
+            timeline.run("curator", curator::close);
             IdGenerator.cleanUp();
+            timeline.finish();
         }
     }
 
@@ -18,6 +18,9 @@
 package io.appform.dropwizard.discovery.bundle;
 
 import com.google.common.base.Strings;
+import io.appform.dropwizard.discovery.bundle.id.NodeIdManager;
+import io.appform.dropwizard.discovery.bundle.id.NodeIdProviderType;
+import io.appform.dropwizard.discovery.bundle.retry.ConnectionRetryPolicy;
 import java.util.Set;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
@@ -55,10 +58,43 @@ public class ServiceDiscoveryConfiguration {
     @Max(60000)
     private int connectionRetryIntervalMillis = Constants.DEFAULT_RETRY_CONN_INTERVAL;
 
+    @NotNull
+    private ConnectionRetryPolicy connectionRetryPolicy = ConnectionRetryPolicy.FIXED;
+
+    /**
+     * Cap on the retry interval for the {@link ConnectionRetryPolicy#EXPONENTIAL_JITTER} policy
+     */
+    @Min(1000)
+    @Max(600000)
+    private int connectionRetryMaxIntervalMillis = Constants.DEFAULT_RETRY_CONN_MAX_INTERVAL;
+
+    /**
+     * Minimum time between establishing new zookeeper sessions after the first one, zero for no limit. The wait
+     * blocks curator's connection thread and is capped at a quarter of the session timeout.
+     */
+    @Min(0)
+    @Max(600000)
+    private int sessionEstablishmentIntervalMillis;
+
     @NotNull
     @NotEmpty
     private String publishedHost = Constants.DEFAULT_HOST;
 
+    /**
+     * Upper bound for each lookup when resolving the published and zookeeper hosts at startup
+     */
+    @Min(100)
+    @Max(60000)
+    private int hostResolutionTimeoutMs = Constants.DEFAULT_HOST_RESOLUTION_TIMEOUT_MS;
+
+    /**
+     * Publish the resolved address of the published host as a tag in node data along with the host name, so that
+     * clients can connect without resolving the host name themselves. The address is added as an
+     * {@code address:<ip>} tag, so selectors that filter on tags see it in the node's tag set too; any
+     * {@code address:} tag from {@link #tags} is replaced.
+     */
+    private boolean publishResolvedAddress;
+
     @NotNull
     @Min(-1)
     @Max(65535)
@@ -80,6 +116,59 @@ public class ServiceDiscoveryConfiguration {
 
     private Set<String> tags;
 
+    /**
+     * Write {@link io.appform.dropwizard.discovery.bundle.id.Id} fields as bare id strings on the environment object
+     * mapper and accept ids as resource params. Off by default, as it changes the JSON of every id field from a bean to
+     * a string.
+     */
+    private boolean serializeIdsAsStrings;
+
+    @Min(1)
+    @Max(10000)
+    private int nodeIdMaxAttempts = NodeIdManager.DEFAULT_MAX_ATTEMPTS;
+
+    @Min(1000)
+    @Max(600000)
+    private long nodeIdTimeoutMs = NodeIdManager.DEFAULT_TIMEOUT.toMillis();
+
+    /**
+     * Optional file to remember the node id in across restarts, on storage that is local to the instance
+     */
+    private String nodeIdHintFile;
+
+    /**
+     * Where node ids for id generation come from. Non zookeeper providers make ids available without zookeeper.
+     */
+    @NotNull
+    private NodeIdProviderType nodeIdProvider = NodeIdProviderType.ZOOKEEPER;
+
+    /**
+     * Node id to use with the {@link NodeIdProviderType#STATIC} provider
+     */
+    @Min(0)
+    @Max(9999)
+    private Integer nodeId;
+
+    /**
+     * Directory for slot files of the {@link NodeIdProviderType#FILE_LOCK} provider, shared by all processes on the host
+     */
+    private String nodeIdLockDirectory;
+
+    /**
+     * First node id the {@link NodeIdProviderType#FILE_LOCK} provider may hand out. Slot files only coordinate
+     * processes on one host, so hosts sharing an id space need disjoint ranges.
+     */
+    @Min(0)
+    @Max(9999)
+    private Integer nodeIdRangeStart;
+
+    /**
+     * Number of node ids from {@link #nodeIdRangeStart} the {@link NodeIdProviderType#FILE_LOCK} provider may hand out
+     */
+    @Min(1)
+    @Max(10000)
+    private Integer nodeIdRangeSize;
+
     @Builder
     public ServiceDiscoveryConfiguration(String namespace,
                                          String environment,
@@ -93,7 +182,21 @@ public class ServiceDiscoveryConfiguration {
                                          boolean initialRotationStatus,
                                          int dropwizardCheckInterval,
                                          int dropwizardCheckStaleness,
-                                         Set<String> tags) {
+                                         Set<String> tags,
+                                         int nodeIdMaxAttempts,
+                                         long nodeIdTimeoutMs,
+                                         String nodeIdHintFile,
+                                         NodeIdProviderType nodeIdProvider,
+                                         Integer nodeId,
+                                         String nodeIdLockDirectory,
+                                         Integer nodeIdRangeStart,
+                                         Integer nodeIdRangeSize,
+                                         int hostResolutionTimeoutMs,
+                                         boolean publishResolvedAddress,
+                                         ConnectionRetryPolicy connectionRetryPolicy,
+                                         int connectionRetryMaxIntervalMillis,
+                                         int sessionEstablishmentIntervalMillis,
+                                         boolean serializeIdsAsStrings) {
         this.namespace = Strings.isNullOrEmpty(namespace)
                          ? Constants.DEFAULT_NAMESPACE
                          : namespace;
@@ -117,5 +220,31 @@ public class ServiceDiscoveryConfiguration {
                                        : dropwizardCheckInterval;
         this.dropwizardCheckStaleness = dropwizardCheckStaleness;
         this.tags = tags;
+        this.nodeIdMaxAttempts = nodeIdMaxAttempts == 0
+                                 ? NodeIdManager.DEFAULT_MAX_ATTEMPTS
+                                 : nodeIdMaxAttempts;
+        this.nodeIdTimeoutMs = nodeIdTimeoutMs == 0
+                               ? NodeIdManager.DEFAULT_TIMEOUT.toMillis()
+                               : nodeIdTimeoutMs;
+        this.nodeIdHintFile = nodeIdHintFile;
+        this.nodeIdProvider = null == nodeIdProvider
+                              ? NodeIdProviderType.ZOOKEEPER
+                              : nodeIdProvider;
+        this.nodeId = nodeId;
+        this.nodeIdLockDirectory = nodeIdLockDirectory;
+        this.nodeIdRangeStart = nodeIdRangeStart;
+        this.nodeIdRangeSize = nodeIdRangeSize;
+        this.hostResolutionTimeoutMs = hostResolutionTimeoutMs == 0
+                                       ? Constants.DEFAULT_HOST_RESOLUTION_TIMEOUT_MS
+                                       : hostResolutionTimeoutMs;
+        this.publishResolvedAddress = publishResolvedAddress;
+        this.connectionRetryPolicy = null == connectionRetryPolicy
+                                     ? ConnectionRetryPolicy.FIXED
+                                     : connectionRetryPolicy;
+        this.connectionRetryMaxIntervalMillis = connectionRetryMaxIntervalMillis == 0
+                                                ? Constants.DEFAULT_RETRY_CONN_MAX_INTERVAL
+                                                : connectionRetryMaxIntervalMillis;
+        this.sessionEstablishmentIntervalMillis = sessionEstablishmentIntervalMillis;
+        this.serializeIdsAsStrings = serializeIdsAsStrings;
     }
 }
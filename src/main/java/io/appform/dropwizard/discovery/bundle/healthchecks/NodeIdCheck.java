@@ -0,0 +1,25 @@
+package io.appform.dropwizard.discovery.bundle.healthchecks;
+
+import io.appform.ranger.core.healthcheck.Healthcheck;
+import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps the node out of rotation while it has no node id it can safely generate ids with
+ */
+public class NodeIdCheck implements Healthcheck {
+
+    private final BooleanSupplier nodeIdUsable;
+
+    public NodeIdCheck(BooleanSupplier nodeIdUsable) {
+        this.nodeIdUsable = nodeIdUsable;
+    }
+
+    @Override
+    public HealthcheckStatus check() {
+        return nodeIdUsable.getAsBoolean()
+               ? HealthcheckStatus.healthy
+               : HealthcheckStatus.unhealthy;
+    }
+}
@@ -0,0 +1,148 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.google.common.base.Preconditions;
+import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatter;
+import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatters;
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Fixed width binary encoding of ids for byte oriented sinks like message keys and binary columns.
+ * Without prefixes every id is written as the 8 byte big-endian packed value described in {@link PackedIds}, so
+ * encoded ids compare in generation order as unsigned bytes. With prefixes, a 4 byte big-endian tag identifying the
+ * prefix (its index in the list the codec was created with) comes first, making every id 12 bytes.
+ * Ids are read and written at the current position of the buffer, regardless of the byte order set on it.
+ */
+public class BinaryIdCodec {
+    public static final int PACKED_SIZE = Long.BYTES;
+    public static final int TAGGED_SIZE = Integer.BYTES + Long.BYTES;
+
+    private final IdFormatter idFormatter;
+    private final String[] prefixes;
+
+    /**
+     * Codec writing 8 byte ids. Decoded ids are formatted with no prefix.
+     */
+    public BinaryIdCodec(@NonNull IdFormatter idFormatter) {
+        this.idFormatter = idFormatter;
+        this.prefixes = null;
+    }
+
+    /**
+     * Codec writing 12 byte ids tagged with the prefix
+     *
+     * @param idFormatter Formatter used to rebuild the id string on decode
+     * @param prefixes    Known prefixes. Tags are the positions in this list, so it must only be appended to.
+     */
+    public BinaryIdCodec(@NonNull IdFormatter idFormatter, @NonNull List<String> prefixes) {
+        Preconditions.checkArgument(!prefixes.isEmpty(), "At least one prefix is needed for tagged ids");
+        this.idFormatter = idFormatter;
+        this.prefixes = prefixes.toArray(new String[0]);
+    }
+
+    public static BinaryIdCodec original() {
+        return new BinaryIdCodec(IdFormatters.original());
+    }
+
+    public int size() {
+        return null == prefixes ? PACKED_SIZE : TAGGED_SIZE;
+    }
+
+    /**
+     * Generate a new id with the given prefix and write it straight into the target
+     *
+     * @return Generated id in packed form
+     */
+    public long generateInto(final String prefix, @NonNull final ByteBuffer target) {
+        final int tag = tagOf(prefix);
+        final long packed = IdGenerator.generatePacked();
+        write(target, tag, packed);
+        return packed;
+    }
+
+    /**
+     * Write the id at the current position of the target. For tagged codecs the id must start with one of the known
+     * prefixes; the longest matching one is used.
+     */
+    public void encode(@NonNull final Id id, @NonNull final ByteBuffer target) {
+        int tag = -1;
+        if (null != prefixes) {
+            tag = longestPrefixOf(id.getId());
+            Preconditions.checkArgument(tag >= 0, "Id %s does not start with a known prefix", id.getId());
+        }
+        write(target, tag, PackedIds.pack(id));
+    }
+
+    /**
+     * Read the packed value of the id at the current position of the source, skipping the tag if any.
+     * Does not allocate.
+     */
+    public long decodePacked(@NonNull final ByteBuffer source) {
+        if (null != prefixes) {
+            readTag(source);
+        }
+        return readLong(source);
+    }
+
+    /**
+     * Read the id at the current position of the source. Only the id string itself is allocated.
+     */
+    public Id decode(@NonNull final ByteBuffer source) {
+        final String prefix = null == prefixes ? "" : prefixes[readTag(source)];
+        final long packed = readLong(source);
+        final long time = PackedIds.time(packed);
+        final int node = PackedIds.node(packed);
+        final int nonce = PackedIds.nonce(packed);
+        final StringBuilder id = new StringBuilder(32).append(prefix);
+        idFormatter.formatTo(id, time, node, nonce);
+        return new Id(id.toString(), new Date(time), node, nonce);
+    }
+
+    private void write(ByteBuffer target, int tag, long packed) {
+        final boolean bigEndian = target.order() == ByteOrder.BIG_ENDIAN;
+        if (null != prefixes) {
+            target.putInt(bigEndian ? tag : Integer.reverseBytes(tag));
+        }
+        target.putLong(bigEndian ? packed : Long.reverseBytes(packed));
+    }
+
+    private int readTag(ByteBuffer source) {
+        final int raw = source.getInt();
+        final int tag = source.order() == ByteOrder.BIG_ENDIAN ? raw : Integer.reverseBytes(raw);
+        if (tag < 0 || tag >= prefixes.length) {
+            throw new IllegalArgumentException("Unknown prefix tag " + tag);
+        }
+        return tag;
+    }
+
+    private static long readLong(ByteBuffer source) {
+        final long raw = source.getLong();
+        return source.order() == ByteOrder.BIG_ENDIAN ? raw : Long.reverseBytes(raw);
+    }
+
+    private int tagOf(String prefix) {
+        if (null == prefixes) {
+            return -1;
+        }
+        for (int i = 0; i < prefixes.length; i++) {
+            if (prefixes[i].equals(prefix)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown prefix " + prefix);
+    }
+
+    private int longestPrefixOf(String id) {
+        int tag = -1;
+        for (int i = 0; i < prefixes.length; i++) {
+            if (id.startsWith(prefixes[i]) && (tag < 0 || prefixes[i].length() > prefixes[tag].length())) {
+                tag = i;
+            }
+        }
+        return tag;
+    }
+}
@@ -18,6 +18,7 @@
 package io.appform.dropwizard.discovery.bundle.id;
 
 import java.util.BitSet;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -65,6 +66,52 @@ public class CollisionChecker {
         }
     }
 
+    /**
+     * Claims up to max free locations for the given time under a single lock acquisition.
+     * Scanning starts at a random location and wraps around, so claimed locations are not predictable from the count.
+     *
+     * @param timeInMillis Time to claim locations for
+     * @param locations    Array that claimed locations are written into
+     * @param max          Maximum number of locations to claim
+     * @return Number of locations claimed. Zero if all locations for this time are taken.
+     */
+    public int claim(long timeInMillis, int[] locations, int max) {
+        dataLock.lock();
+        try {
+            long resolvedTime = resolution.convert(timeInMillis, TimeUnit.MILLISECONDS);
+            if (currentInstant != resolvedTime) {
+                currentInstant = resolvedTime;
+                bitSet.clear();
+            }
+            final int limit = Math.min(max, locations.length);
+            final int start = ThreadLocalRandom.current().nextInt(Constants.MAX_ID_PER_MS);
+            int claimed = 0;
+            int cursor = start;
+            boolean wrapped = false;
+            while (claimed < limit) {
+                final int location = bitSet.nextClearBit(cursor);
+                if (wrapped && location >= start) {
+                    break;
+                }
+                if (location >= Constants.MAX_ID_PER_MS) {
+                    if (wrapped) {
+                        break;
+                    }
+                    wrapped = true;
+                    cursor = 0;
+                    continue;
+                }
+                bitSet.set(location);
+                locations[claimed++] = location;
+                cursor = location + 1;
+            }
+            return claimed;
+        }
+        finally {
+            dataLock.unlock();
+        }
+    }
+
     public void free(long time, int location) {
         dataLock.lock();
         try {
@@ -30,4 +30,8 @@ public class CuratorPathUtils {
     public String path(int nodeId) {
         return String.format("/%s/%s/%03d", "id-generator", processName, nodeId);
     }
+
+    public String parentPath() {
+        return String.format("/%s/%s", "id-generator", processName);
+    }
 }
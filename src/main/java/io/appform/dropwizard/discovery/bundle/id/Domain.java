@@ -4,6 +4,7 @@ import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstra
 import io.appform.dropwizard.discovery.bundle.id.formatter.DefaultIdFormatter;
 import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatter;
 import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatters;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NonNull;
@@ -24,17 +25,38 @@ public class Domain {
     private final List<IdValidationConstraint> constraints;
     private final IdFormatter idFormatter;
     private final CollisionChecker collisionChecker;
+    @Getter(AccessLevel.PACKAGE)
+    private final MonotonicSequence monotonicSequence;
 
+    public Domain(@NonNull String domain,
+                  @NonNull List<IdValidationConstraint> constraints,
+                  IdFormatter idFormatter,
+                  TimeUnit resolution) {
+        this(domain, constraints, idFormatter, resolution, false);
+    }
 
+    /**
+     * @param monotonic Use a per domain sequence instead of random nonces, so that ids generated in this process
+     *                  are strictly increasing in packed order, see {@link PackedIds}. Formatted id strings hold
+     *                  local time, so they sort the same way only while the zone offset doesn't go back, e.g. always
+     *                  in UTC. The resolution is ignored for monotonic domains. Ids that fail constraints still use
+     *                  up their sequence number, leaving gaps.
+     */
     @Builder
     public Domain(@NonNull String domain,
                   @NonNull List<IdValidationConstraint> constraints,
                   IdFormatter idFormatter,
-                  TimeUnit resolution) {
+                  TimeUnit resolution,
+                  boolean monotonic) {
         this.domain = domain;
         this.constraints = constraints;
         this.idFormatter = Objects.requireNonNullElse(idFormatter, IdFormatters.original());
         this.collisionChecker = new CollisionChecker(Objects.requireNonNullElse(resolution, TimeUnit.MILLISECONDS));
+        this.monotonicSequence = monotonic ? new MonotonicSequence() : null;
+    }
+
+    public boolean isMonotonic() {
+        return null != monotonicSequence;
     }
 
 }
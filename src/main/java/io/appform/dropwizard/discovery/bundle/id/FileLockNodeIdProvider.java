@@ -0,0 +1,135 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Hands out node ids that are unique among the processes on one host. Every id has a slot file in a shared directory
+ * and the first slot that can be locked with {@link FileChannel#tryLock()} is taken. The lock is held till the
+ * provider is closed, and the OS drops it if the process dies, so the slot is free again for the next process.
+ * Ids are not coordinated across hosts. Hosts sharing an id space need disjoint ranges of slots.
+ */
+@Slf4j
+public class FileLockNodeIdProvider implements NodeIdProvider {
+    private static final String SLOT_SUFFIX = ".lock";
+
+    //File locks are held per process, and closing any channel on a locked file can drop the lock. Slots held in this
+    //JVM are therefore skipped without opening them.
+    private static final Set<Path> HELD_SLOTS = ConcurrentHashMap.newKeySet();
+
+    private final Path directory;
+    private final int firstNode;
+    private final int numNodes;
+    private Path slot;
+    private FileChannel channel;
+    private FileLock lock;
+    private int node = -1;
+
+    public FileLockNodeIdProvider(Path directory) {
+        this(directory, 0, Constants.MAX_NUM_NODES);
+    }
+
+    /**
+     * @param directory Directory for the slot files, shared by all processes on the host
+     * @param firstNode First node id this provider may hand out
+     * @param numNodes  Number of node ids from firstNode this provider may hand out
+     */
+    public FileLockNodeIdProvider(@NonNull Path directory, int firstNode, int numNodes) {
+        Preconditions.checkArgument(firstNode >= 0 && numNodes > 0 && firstNode + numNodes <= Constants.MAX_NUM_NODES,
+                                    "Node id range must lie between 0 and %s", Constants.MAX_NUM_NODES - 1);
+        this.directory = directory.toAbsolutePath().normalize();
+        this.firstNode = firstNode;
+        this.numNodes = numNodes;
+    }
+
+    @Override
+    public synchronized int acquire() {
+        if (null != lock) {
+            return node;
+        }
+        try {
+            Files.createDirectories(directory);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Could not create node id slot directory " + directory, e);
+        }
+        for (int candidate = firstNode; candidate < firstNode + numNodes; candidate++) {
+            if (tryLock(candidate)) {
+                node = candidate;
+                log.info("Node will be set to node id {} locked from {}", node, slot);
+                return node;
+            }
+        }
+        throw new IllegalStateException(String.format("All node ids between %d and %d are locked in %s",
+                                                      firstNode, firstNode + numNodes - 1, directory));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (null == lock) {
+            return;
+        }
+        try {
+            lock.release();
+            channel.close();
+        }
+        catch (IOException e) {
+            log.warn("Error releasing node id slot {}: {}", slot, e.getMessage());
+        }
+        finally {
+            HELD_SLOTS.remove(slot);
+            log.info("Released node id {}", node);
+            lock = null;
+            channel = null;
+            slot = null;
+            node = -1;
+        }
+    }
+
+    private boolean tryLock(int candidate) {
+        val candidateSlot = directory.resolve(candidate + SLOT_SUFFIX);
+        if (!HELD_SLOTS.add(candidateSlot)) {
+            return false;
+        }
+        FileChannel candidateChannel = null;
+        try {
+            candidateChannel = FileChannel.open(candidateSlot, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            val candidateLock = candidateChannel.tryLock();
+            if (null != candidateLock) {
+                slot = candidateSlot;
+                channel = candidateChannel;
+                lock = candidateLock;
+                return true;
+            }
+        }
+        catch (IOException | OverlappingFileLockException e) {
+            log.warn("Could not lock node id slot {}: {}", candidateSlot, e.getMessage());
+        }
+        closeQuietly(candidateChannel);
+        HELD_SLOTS.remove(candidateSlot);
+        return false;
+    }
+
+    private static void closeQuietly(FileChannel candidateChannel) {
+        if (null == candidateChannel) {
+            return;
+        }
+        try {
+            candidateChannel.close();
+        }
+        catch (IOException e) {
+            log.debug("Error closing node id slot channel: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executor used for asynchronous id generation
+ */
+@Slf4j
+@UtilityClass
+class IdGenerationExecutors {
+
+    static ExecutorService create() {
+        if (Boolean.parseBoolean(System.getenv().getOrDefault("ID_GENERATION_USE_VIRTUAL_THREADS", "false"))) {
+            try {
+                val executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+                log.info("Asynchronous id generation will run on virtual threads");
+                return executor;
+            }
+            catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads are not supported on this JVM. Falling back to platform threads.");
+            }
+        }
+        return Executors.newFixedThreadPool(readThreadCount(),
+                                            new ThreadFactoryBuilder()
+                                                    .setNameFormat("id-generator-async-%d")
+                                                    .setDaemon(true)
+                                                    .build());
+    }
+
+    private static int readThreadCount() {
+        try {
+            val count = Integer.parseInt(System.getenv()
+                                                 .getOrDefault("ID_GENERATION_ASYNC_THREADS",
+                                                               Integer.toString(Runtime.getRuntime()
+                                                                                        .availableProcessors())));
+            if (count <= 0) {
+                throw new IllegalArgumentException(
+                        "Please set a positive value for ID_GENERATION_ASYNC_THREADS");
+            }
+            return count;
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Please provide a valid positive integer for ID_GENERATION_ASYNC_THREADS");
+        }
+    }
+}
@@ -17,34 +17,55 @@
 
 package io.appform.dropwizard.discovery.bundle.id;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import dev.failsafe.Failsafe;
 import dev.failsafe.FailsafeExecutor;
 import dev.failsafe.RetryPolicy;
+import dev.failsafe.RetryPolicyBuilder;
 import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstraint;
 import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatter;
 import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatters;
+import io.appform.dropwizard.discovery.bundle.id.formatter.ZoneOffsets;
 import io.appform.dropwizard.discovery.bundle.id.request.IdGenerationRequest;
 import lombok.NonNull;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Id generation
@@ -54,6 +75,7 @@ import java.util.regex.Pattern;
 public class IdGenerator {
 
     private static final int MINIMUM_ID_LENGTH = 22;
+    private static final int PACKED_ID_BATCH_SIZE = 64;
     private static final SecureRandom SECURE_RANDOM = new SecureRandom(Long.toBinaryString(System.currentTimeMillis())
                                                                                .getBytes());
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormat.forPattern("yyMMddHHmmssSSS");
@@ -61,42 +83,71 @@ public class IdGenerator {
     private static final Map<String, Domain> REGISTERED_DOMAINS =
             new ConcurrentHashMap<>(Map.of(Domain.DEFAULT_DOMAIN_NAME,
                                            Domain.DEFAULT));
-    private static final RetryPolicy<GenerationResult> RETRY_POLICY = RetryPolicy.<GenerationResult>builder()
-            .withMaxAttempts(readRetryCount())
-            .handleIf(throwable -> true)
-            .handleResultIf(Objects::isNull)
-            .handleResultIf(generationResult -> generationResult.getState() == IdValidationState.INVALID_RETRYABLE)
-            .onRetry(event -> {
-                val res = event.getLastResult();
-                if (null != res && !res.getState().equals(IdValidationState.VALID)) {
-                    val id = res.getId();
-                    val collisionChecker = Strings.isNullOrEmpty(res.getDomain())
-                                           ? Domain.DEFAULT.getCollisionChecker()
-                                           : REGISTERED_DOMAINS.get(res.getDomain()).getCollisionChecker();
-                    collisionChecker.free(id.getGeneratedDate().getTime(), id.getExponent());
-                }
-            })
-            .build();
+    private static final int RETRY_COUNT = readRetryCount();
+    private static final RetryPolicy<GenerationResult> RETRY_POLICY = retryPolicyBuilder().build();
     private static final FailsafeExecutor<GenerationResult> RETRIER
             = Failsafe.with(Collections.singletonList(RETRY_POLICY));
     private static final Pattern PATTERN = Pattern.compile("(.*)([0-9]{15})([0-9]{4})([0-9]{3})");
 
     private static final List<IdValidationConstraint> GLOBAL_CONSTRAINTS = new ArrayList<>();
-    private static int nodeId;
+    private static final Duration NODE_ID_WAIT = readNodeIdWait();
+    private static volatile int nodeId;
+    private static volatile CompletableFuture<Void> nodeIdReady = CompletableFuture.completedFuture(null);
+    private static ExecutorService asyncExecutor;
+    private static volatile Meter deadlineMisses = new Meter();
+    private static volatile Timer nodeIdWaits = new Timer();
 
     public static void initialize(int node) {
         nodeId = node;
+        nodeIdReady = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Initialize with a node id that is still being acquired. Generation calls made before the node id is available
+     * block for up to ID_GENERATION_NODE_ID_WAIT_MS (default 30000) milliseconds and then fail with
+     * {@link IllegalStateException}, as do all calls if acquisition fails.
+     *
+     * @param node                      Node id being acquired
+     * @param globalConstraints         Global constraints
+     * @param domainSpecificConstraints Domain specific constraints
+     */
+    public static synchronized void initializeAsync(
+            @NonNull CompletionStage<Integer> node,
+            List<IdValidationConstraint> globalConstraints,
+            Map<String, List<IdValidationConstraint>> domainSpecificConstraints) {
+        registerConstraints(globalConstraints, domainSpecificConstraints);
+        nodeIdReady = node.thenAccept(acquired -> nodeId = acquired).toCompletableFuture();
     }
 
     public static synchronized void cleanUp() {
         GLOBAL_CONSTRAINTS.clear();
         REGISTERED_DOMAINS.clear();
+        if (null != asyncExecutor) {
+            asyncExecutor.shutdown();
+            asyncExecutor = null;
+        }
+    }
+
+    /**
+     * Publish id generation metrics to the provided registry
+     *
+     * @param metricRegistry Registry to publish to
+     */
+    public static synchronized void registerMetrics(@NonNull MetricRegistry metricRegistry) {
+        deadlineMisses = metricRegistry.meter(MetricRegistry.name(IdGenerator.class, "async", "deadlineMisses"));
+        nodeIdWaits = metricRegistry.timer(MetricRegistry.name(IdGenerator.class, "nodeId", "waits"));
     }
 
     public static synchronized void initialize(
             int node, List<IdValidationConstraint> globalConstraints,
             Map<String, List<IdValidationConstraint>> domainSpecificConstraints) {
-        nodeId = node;
+        initialize(node);
+        registerConstraints(globalConstraints, domainSpecificConstraints);
+    }
+
+    private static void registerConstraints(
+            List<IdValidationConstraint> globalConstraints,
+            Map<String, List<IdValidationConstraint>> domainSpecificConstraints) {
         if (null != globalConstraints) {
             IdGenerator.GLOBAL_CONSTRAINTS.addAll(globalConstraints);
         }
@@ -166,16 +217,197 @@ public class IdGenerator {
             final IdFormatter idFormatter,
             final CollisionChecker collisionChecker) {
         val idInfo = random(collisionChecker);
-        val dateTime = new DateTime(idInfo.time);
-        val id = String.format("%s%s", prefix, idFormatter.format(dateTime, nodeId, idInfo.exponent));
+        return toId(prefix, idFormatter, idInfo.time, idInfo.exponent);
+    }
+
+    private static Id generate(
+            final String prefix,
+            final IdFormatter idFormatter,
+            final Domain domain) {
+        if (!domain.isMonotonic()) {
+            return generate(prefix, idFormatter, domain.getCollisionChecker());
+        }
+        awaitNodeId();
+        val next = domain.getMonotonicSequence().next();
+        return toId(prefix, idFormatter, MonotonicSequence.time(next), MonotonicSequence.sequence(next));
+    }
+
+    static Id toId(
+            final String prefix,
+            final IdFormatter idFormatter,
+            long time,
+            int exponent) {
+        val node = nodeId();
+        val id = new StringBuilder(32).append(prefix);
+        idFormatter.formatTo(id, time, node, exponent);
         return Id.builder()
-                .id(id)
-                .exponent(idInfo.exponent)
-                .generatedDate(dateTime.toDate())
-                .node(nodeId)
+                .id(id.toString())
+                .exponent(exponent)
+                .generatedDate(new Date(time))
+                .node(node)
                 .build();
     }
 
+    /**
+     * Generate id with given prefix and append it to the target, without creating intermediate strings
+     *
+     * @param prefix String prefix
+     * @param target Builder to append the id to
+     * @return Generated id in the packed form described in {@link PackedIds}
+     */
+    public static long generateInto(final String prefix, @NonNull final StringBuilder target) {
+        val idInfo = random(Domain.DEFAULT.getCollisionChecker());
+        //Read once, so the formatted and packed forms agree even if the node id is rotated meanwhile
+        val node = nodeId;
+        target.append(prefix);
+        IdFormatters.original().formatTo(target, idInfo.time, node, idInfo.exponent);
+        return PackedIds.pack(idInfo.time, node, idInfo.exponent);
+    }
+
+    /**
+     * Generate id with given prefix and append it to the target
+     *
+     * @param prefix String prefix
+     * @param target Appendable to append the id to
+     * @return Generated id in the packed form described in {@link PackedIds}
+     * @throws IOException if the target could not be appended to
+     */
+    public static long generateInto(final String prefix, @NonNull final Appendable target) throws IOException {
+        val idInfo = random(Domain.DEFAULT.getCollisionChecker());
+        val node = nodeId;
+        target.append(prefix);
+        IdFormatters.original().formatTo(target, idInfo.time, node, idInfo.exponent);
+        return PackedIds.pack(idInfo.time, node, idInfo.exponent);
+    }
+
+    /**
+     * Generate id with given ASCII prefix and write it as bytes at the current position of the target
+     *
+     * @param prefix ASCII prefix
+     * @param target Buffer to write the id to
+     * @return Generated id in the packed form described in {@link PackedIds}
+     */
+    public static long generateInto(@NonNull final String prefix, @NonNull final ByteBuffer target) {
+        val idInfo = random(Domain.DEFAULT.getCollisionChecker());
+        val node = nodeId;
+        for (int i = 0; i < prefix.length(); i++) {
+            target.put((byte) prefix.charAt(i));
+        }
+        IdFormatters.original().formatTo(target, idInfo.time, node, idInfo.exponent);
+        return PackedIds.pack(idInfo.time, node, idInfo.exponent);
+    }
+
+    /**
+     * Generate an id in the packed form described in {@link PackedIds}, without formatting it
+     *
+     * @return Generated id in packed form
+     */
+    public static long generatePacked() {
+        val idInfo = random(Domain.DEFAULT.getCollisionChecker());
+        val node = nodeId;
+        return PackedIds.pack(idInfo.time, node, idInfo.exponent);
+    }
+
+    /**
+     * Generate an id as a version 7 UUID, see {@link UuidIds} for the layout
+     *
+     * @return Generated id as UUID
+     */
+    public static UUID generateUuid() {
+        val idInfo = random(Domain.DEFAULT.getCollisionChecker());
+        val node = nodeId;
+        return UuidIds.toUuid(idInfo.time, node, idInfo.exponent);
+    }
+
+    static int nodeId() {
+        awaitNodeId();
+        return nodeId;
+    }
+
+    private static void awaitNodeId() {
+        val ready = nodeIdReady;
+        if (ready.isDone() && !ready.isCompletedExceptionally()) {
+            return;
+        }
+        val context = nodeIdWaits.time();
+        try {
+            ready.get(NODE_ID_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for node id", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Node id acquisition failed", e.getCause());
+        }
+        catch (TimeoutException e) {
+            throw new IllegalStateException("Node id not acquired within " + NODE_ID_WAIT, e);
+        }
+        finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Publisher that generates ids with the given prefix as subscribers request them.
+     * Ids are generated on the requesting thread and are not validated against any constraints.
+     *
+     * @param prefix String prefix
+     * @return Publisher of ids
+     */
+    public static Flow.Publisher<Id> publisher(String prefix) {
+        return new IdPublisher(prefix, IdFormatters.original(), Domain.DEFAULT.getCollisionChecker(), null);
+    }
+
+    /**
+     * Publisher that generates ids with the given prefix using the formatter and collision checker or monotonic
+     * sequence of the domain.
+     * Ids are generated on the requesting thread and are not validated against any constraints.
+     *
+     * @param prefix String prefix
+     * @param domain Domain for formatter and collision checker selection
+     * @return Publisher of ids
+     */
+    public static Flow.Publisher<Id> publisher(String prefix, @NonNull String domain) {
+        val resolved = REGISTERED_DOMAINS.getOrDefault(domain, Domain.DEFAULT);
+        return new IdPublisher(prefix, resolved.getIdFormatter(), resolved.getCollisionChecker(),
+                               resolved.getMonotonicSequence());
+    }
+
+    /**
+     * Infinite iterator of ids in the packed form described in {@link PackedIds}.
+     * The iterator is not thread safe.
+     *
+     * @return Iterator of packed ids
+     */
+    public static PrimitiveIterator.OfLong packedIdIterator() {
+        val nonceBatch = new NonceBatch(Domain.DEFAULT.getCollisionChecker(), PACKED_ID_BATCH_SIZE);
+        return new PrimitiveIterator.OfLong() {
+            @Override
+            public long nextLong() {
+                return nonceBatch.nextPacked(PACKED_ID_BATCH_SIZE);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Infinite sequential stream of ids in the packed form described in {@link PackedIds}.
+     * Use {@link LongStream#limit(long)} to bound it.
+     *
+     * @return Stream of packed ids
+     */
+    public static LongStream packedIdStream() {
+        return StreamSupport.longStream(
+                Spliterators.spliteratorUnknownSize(packedIdIterator(),
+                                                    Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT),
+                false);
+    }
+
     /**
      * Generate id that mathces all passed constraints.
      * NOTE: There are performance implications for this.
@@ -236,7 +468,9 @@ public class IdGenerator {
                                            .id(idString)
                                            .node(Integer.parseInt(matcher.group(3)))
                                            .exponent(Integer.parseInt(matcher.group(4)))
-                                           .generatedDate(DATE_TIME_FORMATTER.parseDateTime(matcher.group(2)).toDate())
+                                           .generatedDate(DATE_TIME_FORMATTER.withZone(ZoneOffsets.zone())
+                                                                  .parseDateTime(matcher.group(2))
+                                                                  .toDate())
                                            .build());
             }
             return Optional.empty();
@@ -293,24 +527,95 @@ public class IdGenerator {
     }
 
     public static Optional<Id> generate(final IdGenerationRequest request) {
-        return Optional.ofNullable(RETRIER.get(
-                        () -> {
-                            Id id = generate(request.getPrefix(), request.getIdFormatter(),
-                                             !Strings.isNullOrEmpty(request.getDomain())
-                                             ? REGISTERED_DOMAINS.getOrDefault(request.getDomain(), Domain.DEFAULT)
-                                                     .getCollisionChecker()
-                                             : Domain.DEFAULT.getCollisionChecker());
-                            return new GenerationResult(id,
-                                                        validateId(request.getConstraints(),
-                                                                   id,
-                                                                   request.isSkipGlobal()),
-                                                        request.getDomain());
-                        }))
+        return Optional.ofNullable(RETRIER.get(() -> generateOnce(request)))
+                .filter(generationResult -> generationResult.getState() == IdValidationState.VALID)
+                .map(GenerationResult::getId);
+    }
+
+    /**
+     * Generate id on a dedicated executor instead of the caller's thread.
+     * Retries for constraint validation stop once the deadline has passed. Time spent waiting in the executor queue
+     * counts against the deadline. Set ID_GENERATION_USE_VIRTUAL_THREADS=true to run on virtual threads on JDK 21+.
+     *
+     * @param request  Id generation request
+     * @param deadline Time budget for the generation, including retries
+     * @return Future for the id. Completes with empty if constraints could not be satisfied within the deadline
+     */
+    public static CompletableFuture<Optional<Id>> generateAsync(
+            @NonNull final IdGenerationRequest request,
+            @NonNull final Duration deadline) {
+        Preconditions.checkArgument(!deadline.isNegative() && !deadline.isZero(), "Deadline must be positive");
+        val deadlineNanos = System.nanoTime() + deadline.toNanos();
+        val result = new CompletableFuture<Optional<Id>>();
+        CompletableFuture.runAsync(() -> result.complete(generateBefore(request, deadlineNanos)), asyncExecutor())
+                .exceptionally(error -> {
+                    result.completeExceptionally(error instanceof CompletionException && null != error.getCause()
+                                                 ? error.getCause()
+                                                 : error);
+                    return null;
+                });
+        //Covers time spent queued behind other work in the executor as well. The timeout is cancelled as soon as the
+        //future completes, so nothing is left behind in the delay queue
+        result.completeOnTimeout(Optional.empty(), deadline.toNanos(), TimeUnit.NANOSECONDS);
+        //Whoever completes the future first decides the outcome, so a miss is counted once
+        return result.whenComplete((generated, error) -> {
+            if (null != generated && generated.isEmpty() && System.nanoTime() - deadlineNanos >= 0) {
+                deadlineMisses.mark();
+            }
+        });
+    }
+
+    private static Optional<Id> generateBefore(final IdGenerationRequest request, long deadlineNanos) {
+        return Optional.ofNullable(RETRIER.get(() -> System.nanoTime() - deadlineNanos >= 0
+                                                     ? new GenerationResult(null,
+                                                                            IdValidationState.INVALID_NON_RETRYABLE,
+                                                                            request.getDomain())
+                                                     : generateOnce(request)))
                 .filter(generationResult -> generationResult.getState() == IdValidationState.VALID)
                 .map(GenerationResult::getId);
     }
 
+    private static GenerationResult generateOnce(final IdGenerationRequest request) {
+        Id id = generate(request.getPrefix(), request.getIdFormatter(),
+                         !Strings.isNullOrEmpty(request.getDomain())
+                         ? REGISTERED_DOMAINS.getOrDefault(request.getDomain(), Domain.DEFAULT)
+                         : Domain.DEFAULT);
+        return new GenerationResult(id,
+                                    validateId(request.getConstraints(),
+                                               id,
+                                               request.isSkipGlobal()),
+                                    request.getDomain());
+    }
+
+    private static synchronized ExecutorService asyncExecutor() {
+        if (null == asyncExecutor) {
+            asyncExecutor = IdGenerationExecutors.create();
+        }
+        return asyncExecutor;
+    }
+
+    private static RetryPolicyBuilder<GenerationResult> retryPolicyBuilder() {
+        return RetryPolicy.<GenerationResult>builder()
+                .withMaxAttempts(RETRY_COUNT)
+                .handleIf(throwable -> true)
+                .handleResultIf(Objects::isNull)
+                .handleResultIf(generationResult -> generationResult.getState() == IdValidationState.INVALID_RETRYABLE)
+                .onRetry(event -> {
+                    val res = event.getLastResult();
+                    if (null != res && !res.getState().equals(IdValidationState.VALID)) {
+                        val id = res.getId();
+                        val domain = Strings.isNullOrEmpty(res.getDomain())
+                                     ? Domain.DEFAULT
+                                     : REGISTERED_DOMAINS.getOrDefault(res.getDomain(), Domain.DEFAULT);
+                        if (!domain.isMonotonic()) {
+                            domain.getCollisionChecker().free(id.getGeneratedDate().getTime(), id.getExponent());
+                        }
+                    }
+                });
+    }
+
     private static IdInfo random(CollisionChecker collisionChecker) {
+        awaitNodeId();
         int randomGen;
         long time;
         do {
@@ -350,6 +655,20 @@ public class IdGenerator {
         return IdValidationState.VALID;
     }
 
+    private static Duration readNodeIdWait() {
+        try {
+            val millis = Long.parseLong(System.getenv().getOrDefault("ID_GENERATION_NODE_ID_WAIT_MS", "30000"));
+            if (millis <= 0) {
+                throw new IllegalArgumentException("Please set a positive value for ID_GENERATION_NODE_ID_WAIT_MS");
+            }
+            return Duration.ofMillis(millis);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Please provide a valid positive integer for ID_GENERATION_NODE_ID_WAIT_MS");
+        }
+    }
+
     private static int readRetryCount() {
         try {
             val count = Integer.parseInt(System.getenv().getOrDefault("NUM_ID_GENERATION_RETRIES", "512"));
@@ -0,0 +1,296 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import io.appform.dropwizard.discovery.bundle.id.formatter.CrockfordBase32IdFormatter;
+import io.appform.dropwizard.discovery.bundle.id.formatter.ZoneOffsets;
+import lombok.AllArgsConstructor;
+import lombok.experimental.UtilityClass;
+import org.joda.time.DateTimeZone;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Parses ids in the default format straight into the packed form described in {@link PackedIds}, without regex,
+ * intermediate strings or date objects. Accepts the same input as {@link IdGenerator#parse(String)}: an arbitrary
+ * prefix followed by 22 digits of time (yyMMddHHmmssSSS in the {@link ZoneOffsets#zone()} timezone), node and exponent.
+ */
+@UtilityClass
+public class IdParsers {
+    /**
+     * Returned for ids that can't be parsed. Never a valid packed id as node bits are all set.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * Length of the time, node and exponent digits at the end of every id in the default format
+     */
+    public static final int NUMERIC_LENGTH = 22;
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private static final byte[] BASE32_DIGITS = base32Digits();
+
+    private static volatile OffsetCache offsetCache = new OffsetCache(null, Long.MIN_VALUE, 0);
+
+    /**
+     * Parse an id in the default format to its packed form
+     *
+     * @param id Id to parse
+     * @return Packed id or {@link #INVALID}
+     */
+    public static long parsePacked(CharSequence id) {
+        return parsePacked(id, true);
+    }
+
+    /**
+     * Parse an id in the default format to a packed form whose time is the yyMMddHHmmssSSS wall clock time written in
+     * the id, read as UTC. This is not the generation instant, but unlike {@link #parsePacked(CharSequence)} it does
+     * not depend on {@link ZoneOffsets#zone()}, so it suits keys that have to match across processes.
+     *
+     * @param id Id to parse
+     * @return Packed wall clock id or {@link #INVALID}
+     */
+    public static long parseWallClockPacked(CharSequence id) {
+        return parsePacked(id, false);
+    }
+
+    /**
+     * Convert a packed id to the form returned by {@link #parseWallClockPacked(CharSequence)}, using the
+     * {@link ZoneOffsets#zone()} offset at the generation instant. Inverse of the zone conversion in
+     * {@link #parsePacked(CharSequence)}.
+     *
+     * @param packed Packed id
+     * @return Packed wall clock id or {@link #INVALID} if the wall clock time can't be packed
+     */
+    public static long toWallClockPacked(long packed) {
+        final long time = PackedIds.time(packed);
+        final long wallClock = time + ZoneOffsets.offsetMillis(time);
+        if (!PackedIds.isPackable(wallClock)) {
+            return INVALID;
+        }
+        return PackedIds.pack(wallClock, PackedIds.node(packed), PackedIds.nonce(packed));
+    }
+
+    private static long parsePacked(CharSequence id, boolean zoned) {
+        if (null == id) {
+            return INVALID;
+        }
+        final int length = id.length();
+        if (length < NUMERIC_LENGTH) {
+            return INVALID;
+        }
+        final int start = length - NUMERIC_LENGTH;
+        for (int i = start; i < length; i++) {
+            final char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+        }
+        return toPacked(2000 + digits(id, start, 2),
+                        digits(id, start + 2, 2),
+                        digits(id, start + 4, 2),
+                        digits(id, start + 6, 2),
+                        digits(id, start + 8, 2),
+                        digits(id, start + 10, 2),
+                        digits(id, start + 12, 3),
+                        digits(id, start + 15, 4),
+                        digits(id, start + 19, 3),
+                        zoned);
+    }
+
+    /**
+     * Parse an id string to an {@link Id}. Ids in the default format are decoded directly, anything else falls back to
+     * {@link IdGenerator#parse(String)}.
+     *
+     * @param id Id to parse
+     * @return Id if it could be parsed
+     */
+    public static Optional<Id> parse(String id) {
+        final long packed = parsePacked(id);
+        if (packed == INVALID) {
+            return IdGenerator.parse(id);
+        }
+        return Optional.of(new Id(id, PackedIds.generatedDate(packed), PackedIds.node(packed), PackedIds.nonce(packed)));
+    }
+
+    /**
+     * Parse an id in the default format from bytes, without creating a string
+     *
+     * @param buffer Buffer holding the id
+     * @param from   Index of the first byte of the id
+     * @param to     Index after the last byte of the id
+     * @return Packed id or {@link #INVALID}
+     */
+    public static long parsePacked(ByteBuffer buffer, int from, int to) {
+        if (to - from < NUMERIC_LENGTH) {
+            return INVALID;
+        }
+        final int start = to - NUMERIC_LENGTH;
+        for (int i = start; i < to; i++) {
+            final byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return INVALID;
+            }
+        }
+        return toPacked(2000 + digits(buffer, start, 2),
+                        digits(buffer, start + 2, 2),
+                        digits(buffer, start + 4, 2),
+                        digits(buffer, start + 6, 2),
+                        digits(buffer, start + 8, 2),
+                        digits(buffer, start + 10, 2),
+                        digits(buffer, start + 12, 3),
+                        digits(buffer, start + 15, 4),
+                        digits(buffer, start + 19, 3),
+                        true);
+    }
+
+    /**
+     * Parse an id formatted by {@link CrockfordBase32IdFormatter} to its packed form. The last
+     * {@link CrockfordBase32IdFormatter#LENGTH} characters are decoded case-insensitively, with I and L read as 1 and
+     * O as 0; everything before is treated as prefix.
+     *
+     * @param id Id to parse
+     * @return Packed id or {@link #INVALID}
+     */
+    public static long parseBase32Packed(CharSequence id) {
+        if (null == id || id.length() < CrockfordBase32IdFormatter.LENGTH) {
+            return INVALID;
+        }
+        final int start = id.length() - CrockfordBase32IdFormatter.LENGTH;
+        final int first = base32Digit(id.charAt(start));
+        if (first < 0 || first > 15) {
+            return INVALID;
+        }
+        long packed = first;
+        for (int i = start + 1; i < id.length(); i++) {
+            final int digit = base32Digit(id.charAt(i));
+            if (digit < 0) {
+                return INVALID;
+            }
+            packed = (packed << 5) | digit;
+        }
+        return isValidPacked(packed) ? packed : INVALID;
+    }
+
+    /**
+     * Parse an id formatted by {@link CrockfordBase32IdFormatter}
+     *
+     * @param id Id to parse
+     * @return Id if it could be parsed
+     */
+    public static Optional<Id> parseBase32(String id) {
+        final long packed = parseBase32Packed(id);
+        if (packed == INVALID) {
+            return Optional.empty();
+        }
+        return Optional.of(new Id(id, PackedIds.generatedDate(packed), PackedIds.node(packed), PackedIds.nonce(packed)));
+    }
+
+    static long toPacked(
+            int year,
+            int month,
+            int day,
+            int hour,
+            int minute,
+            int second,
+            int millis,
+            int node,
+            int nonce,
+            boolean zoned) {
+        if (month < 1 || month > 12
+                || day < 1 || day > daysInMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return INVALID;
+        }
+        final long localEpochSecond = daysFromCivil(year, month, day) * 86_400L
+                + hour * 3_600L + minute * 60L + second;
+        final long epochSecond = zoned
+                                 ? localEpochSecond - offsetSeconds(localEpochSecond)
+                                 : localEpochSecond;
+        final long time = epochSecond * 1_000L + millis;
+        if (!PackedIds.isPackable(time)) {
+            return INVALID;
+        }
+        return PackedIds.pack(time, node, nonce);
+    }
+
+    private static boolean isValidPacked(long packed) {
+        return PackedIds.node(packed) < 10_000 && PackedIds.nonce(packed) < 1_000;
+    }
+
+    private static int base32Digit(char c) {
+        return c < BASE32_DIGITS.length ? BASE32_DIGITS[c] : -1;
+    }
+
+    private static byte[] base32Digits() {
+        final byte[] digits = new byte['z' + 1];
+        Arrays.fill(digits, (byte) -1);
+        for (int i = 0; i < 32; i++) {
+            final char c = CrockfordBase32IdFormatter.ALPHABET.charAt(i);
+            digits[c] = (byte) i;
+            digits[Character.toLowerCase(c)] = (byte) i;
+        }
+        digits['O'] = digits['o'] = 0;
+        digits['I'] = digits['i'] = digits['L'] = digits['l'] = 1;
+        return digits;
+    }
+
+    private static int digits(CharSequence input, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = value * 10 + (input.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static int digits(ByteBuffer input, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = value * 10 + (input.get(i) - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic gregorian date
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = Math.floorDiv(y, 400);
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    /**
+     * Offset of {@link ZoneOffsets#zone()} at the given local time. Zone transitions happen on minute boundaries, so
+     * the offset is cached per local minute. Ids are usually parsed in bulk and clustered in time, making misses rare.
+     */
+    private static int offsetSeconds(long localEpochSecond) {
+        final DateTimeZone zone = ZoneOffsets.zone();
+        final long localMinute = Math.floorDiv(localEpochSecond, 60L);
+        var cache = offsetCache;
+        if (cache.zone != zone || cache.localMinute != localMinute) {
+            final int offset = (int) (ZoneOffsets.offsetFromLocalMillis(zone, localMinute * 60_000L) / 1_000L);
+            cache = new OffsetCache(zone, localMinute, offset);
+            offsetCache = cache;
+        }
+        return cache.offsetSeconds;
+    }
+
+    @AllArgsConstructor
+    private static final class OffsetCache {
+        private final DateTimeZone zone;
+        private final long localMinute;
+        private final int offsetSeconds;
+    }
+}
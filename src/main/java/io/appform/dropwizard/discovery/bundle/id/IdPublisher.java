@@ -0,0 +1,114 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatter;
+import lombok.val;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes ids on demand. Ids are generated on the thread that requests them and only as many as have been
+ * requested. Nonces are claimed from the {@link CollisionChecker} in batches bounded by outstanding demand, or taken
+ * from the sequence of monotonic domains.
+ * Ids published this way are not validated against constraints.
+ */
+public class IdPublisher implements Flow.Publisher<Id> {
+    private final String prefix;
+    private final IdFormatter idFormatter;
+    private final CollisionChecker collisionChecker;
+    private final MonotonicSequence monotonicSequence;
+
+    IdPublisher(
+            String prefix,
+            IdFormatter idFormatter,
+            CollisionChecker collisionChecker,
+            MonotonicSequence monotonicSequence) {
+        this.prefix = prefix;
+        this.idFormatter = idFormatter;
+        this.collisionChecker = collisionChecker;
+        this.monotonicSequence = monotonicSequence;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Id> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber can't be null");
+        subscriber.onSubscribe(new IdSubscription(subscriber));
+    }
+
+    private final class IdSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Id> subscriber;
+        private final NonceBatch nonceBatch = new NonceBatch(collisionChecker, Constants.MAX_ID_PER_MS);
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable pendingError;
+
+        private IdSubscription(Flow.Subscriber<? super Id> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                //Signalled from the drain loop so that it can't overlap with onNext on another thread
+                pendingError = new IllegalArgumentException("Requested number of ids must be positive");
+                drain();
+                return;
+            }
+            demand.getAndUpdate(current -> {
+                val updated = current + n;
+                return updated < 0 ? Long.MAX_VALUE : updated;
+            });
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            var missed = 1;
+            do {
+                if (null != pendingError && !cancelled) {
+                    cancelled = true;
+                    subscriber.onError(pendingError);
+                    return;
+                }
+                val requested = demand.get();
+                var emitted = 0L;
+                while (emitted != requested && !cancelled && null == pendingError) {
+                    final Id id;
+                    try {
+                        if (null != monotonicSequence) {
+                            val next = monotonicSequence.next();
+                            id = IdGenerator.toId(prefix, idFormatter,
+                                                  MonotonicSequence.time(next), MonotonicSequence.sequence(next));
+                        }
+                        else {
+                            val packed = nonceBatch.nextPacked(requested - emitted);
+                            id = IdGenerator.toId(prefix, idFormatter,
+                                                  PackedIds.time(packed), PackedIds.nonce(packed));
+                        }
+                    }
+                    catch (Exception e) {
+                        cancelled = true;
+                        subscriber.onError(e);
+                        return;
+                    }
+                    subscriber.onNext(id);
+                    emitted++;
+                }
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free source of strictly increasing (time, sequence) pairs, used in place of random nonces for monotonic
+ * domains. The sequence restarts at zero whenever the clock moves past the last handed out time. When all
+ * {@link Constants#MAX_ID_PER_MS} sequence numbers of a millisecond are used up, the next millisecond is borrowed
+ * instead of waiting for it, so the handed out time can run ahead of the clock under load, by at most
+ * {@link #MAX_BORROW_MILLIS}. Beyond that callers wait for the clock. It never goes backwards, even if the clock does.
+ * <p>
+ * Since a previous process holding the same node id may have handed out times up to {@link #MAX_BORROW_MILLIS} ahead
+ * of its clock, a new sequence hands out nothing until the clock is past that window.
+ * <p>
+ * Pairs are returned as a single long holding the time in the upper bits and the sequence in the lower
+ * {@link #SEQUENCE_BITS} bits, so values compare in the same order as the pairs.
+ */
+class MonotonicSequence {
+    static final int SEQUENCE_BITS = 10;
+    static final long MAX_BORROW_MILLIS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AtomicLong last = new AtomicLong();
+    private final LongSupplier clock;
+    private final long maxBorrowMillis;
+    private final long notBefore;
+
+    MonotonicSequence() {
+        this(System::currentTimeMillis, MAX_BORROW_MILLIS);
+    }
+
+    MonotonicSequence(LongSupplier clock, long maxBorrowMillis) {
+        this.clock = clock;
+        this.maxBorrowMillis = maxBorrowMillis;
+        this.notBefore = clock.getAsLong() + maxBorrowMillis + 1;
+    }
+
+    long next() {
+        while (true) {
+            final long now = clock.getAsLong();
+            if (now < notBefore) {
+                LockSupport.parkNanos(PAUSE_NANOS);
+                continue;
+            }
+            final long current = last.get();
+            final long lastTime = time(current);
+            final long next;
+            if (now > lastTime) {
+                next = now << SEQUENCE_BITS;
+            }
+            else if (sequence(current) + 1 < Constants.MAX_ID_PER_MS) {
+                next = current + 1;
+            }
+            else if (lastTime + 1 - now <= maxBorrowMillis) {
+                next = (lastTime + 1) << SEQUENCE_BITS;
+            }
+            else {
+                LockSupport.parkNanos(PAUSE_NANOS);
+                continue;
+            }
+            if (last.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    static long time(long value) {
+        return value >>> SEQUENCE_BITS;
+    }
+
+    static int sequence(long value) {
+        return (int) (value & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,146 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
+
+/**
+ * Keeps the node id lease alive across ZooKeeper session loss. The ephemeral node for the id goes away with an
+ * expired session, after which another process could claim the same id. On reconnect the node is re-created for the
+ * same id if it is still free, otherwise a new id is acquired and swapped into {@link IdGenerator}. Failed renewals
+ * are retried with exponential backoff till one succeeds.
+ * The checks run on a dedicated thread, id generation carries on with the current id in the meantime. From session
+ * loss till the lease is renewed {@link #isLeaseHeld()} is false, so the node can be taken out of rotation.
+ */
+@Slf4j
+public class NodeIdLeaseKeeper implements ConnectionStateListener, Closeable {
+    private static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMinutes(1);
+
+    private final NodeIdManager nodeIdManager;
+    private final ScheduledExecutorService executor;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Meter suspended;
+    private final Meter lost;
+    private final Meter reasserted;
+    private final Meter rotated;
+    private final Meter failures;
+    private volatile boolean leaseHeld = true;
+    private ScheduledFuture<?> pendingRenewal;
+    private int failedRenewals;
+
+    public NodeIdLeaseKeeper(@NonNull NodeIdManager nodeIdManager, @NonNull MetricRegistry metricRegistry) {
+        this(nodeIdManager, metricRegistry, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    NodeIdLeaseKeeper(
+            @NonNull NodeIdManager nodeIdManager,
+            @NonNull MetricRegistry metricRegistry,
+            @NonNull Duration initialBackoff,
+            @NonNull Duration maxBackoff) {
+        this.nodeIdManager = nodeIdManager;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = Math.max(initialBackoffMillis, maxBackoff.toMillis());
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                                                                           .setNameFormat("node-id-lease-keeper-%d")
+                                                                           .setDaemon(true)
+                                                                           .build());
+        this.suspended = metricRegistry.meter(MetricRegistry.name(NodeIdLeaseKeeper.class, "suspended"));
+        this.lost = metricRegistry.meter(MetricRegistry.name(NodeIdLeaseKeeper.class, "lost"));
+        this.reasserted = metricRegistry.meter(MetricRegistry.name(NodeIdLeaseKeeper.class, "reasserted"));
+        this.rotated = metricRegistry.meter(MetricRegistry.name(NodeIdLeaseKeeper.class, "rotated"));
+        this.failures = metricRegistry.meter(MetricRegistry.name(NodeIdLeaseKeeper.class, "failures"));
+    }
+
+    @Override
+    public void stateChanged(CuratorFramework client, ConnectionState newState) {
+        switch (newState) {
+            case SUSPENDED:
+                suspended.mark();
+                log.warn("Zookeeper connection suspended, node id {} may be at risk", nodeIdManager.getNode());
+                break;
+            case LOST:
+                lost.mark();
+                leaseHeld = false;
+                log.warn("Zookeeper session lost, node id {} lease is gone until reconnect", nodeIdManager.getNode());
+                break;
+            case RECONNECTED:
+                scheduleRenewal(0);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return false from session loss or a failed renewal till the lease has been renewed
+     */
+    public boolean isLeaseHeld() {
+        return leaseHeld;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private synchronized void scheduleRenewal(long delayMillis) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (null != pendingRenewal) {
+            pendingRenewal.cancel(false);
+        }
+        pendingRenewal = executor.schedule(this::renewLease, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void renewLease() {
+        final int current = nodeIdManager.getNode();
+        try {
+            if (nodeIdManager.reassertNodeId()) {
+                renewed();
+                reasserted.mark();
+                log.info("Node id {} lease confirmed after reconnect", current);
+                return;
+            }
+            leaseHeld = false;
+            log.warn("Node id {} was taken by another process while disconnected, acquiring a new one", current);
+            final int acquired = nodeIdManager.fixNodeId();
+            IdGenerator.initialize(acquired);
+            renewed();
+            rotated.mark();
+            log.info("Rotated node id from {} to {}", current, acquired);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (Exception e) {
+            failures.mark();
+            leaseHeld = false;
+            final long backoffMillis = backoffMillis(++failedRenewals);
+            log.error("Could not renew node id {} lease, retrying in {} ms", current, backoffMillis, e);
+            scheduleRenewal(backoffMillis);
+        }
+    }
+
+    private void renewed() {
+        failedRenewals = 0;
+        leaseHeld = true;
+    }
+
+    private long backoffMillis(int failures) {
+        return Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(failures - 1, 30));
+    }
+}
@@ -17,73 +17,358 @@
 
 package io.appform.dropwizard.discovery.bundle.id;
 
-import com.github.rholder.retry.RetryException;
-import com.github.rholder.retry.RetryerBuilder;
-import com.github.rholder.retry.StopStrategies;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Preconditions;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.SecureRandom;
-import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.CuratorWatcher;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
 
 /**
- * Created by santanu on 2/5/16.
+ * Acquires a node id that is unique for the process by creating an ephemeral znode for it.
+ * The ids already taken are read with a single children listing, and a random free one is claimed. Only when the
+ * claim fails because another instance got there first is the listing read again. Attempts and total time are
+ * bounded, after which acquisition fails instead of blocking startup forever.
+ * Optionally, the acquired id is recorded in a local hint file along with the ZooKeeper session that holds it. On
+ * restart the hinted id is claimed first. If the node for it is still held by the previous session, which happens
+ * while that session is expiring, the manager waits up to the old session timeout for it to go away instead of
+ * moving to a new id. That wait takes at most half of the acquisition timeout, and a new id is always tried at least
+ * once after it.
  */
 @Slf4j
-public class NodeIdManager {
+public class NodeIdManager implements NodeIdProvider {
+    public static final int DEFAULT_MAX_ATTEMPTS = 32;
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final String HINT_NODE = "node";
+    private static final String HINT_SESSION_ID = "sessionId";
+    private static final String HINT_SESSION_TIMEOUT_MS = "sessionTimeoutMs";
 
     private final CuratorFramework curatorFramework;
     private final SecureRandom secureRandom;
     private final CuratorPathUtils pathUtils;
+    private final int maxAttempts;
+    private final Duration timeout;
+    private final Timer acquisitionTimer;
+    private final Histogram attemptsHistogram;
+    private final Path hintFile;
 
     @Getter
-    private int node;
+    private volatile int node;
 
     public NodeIdManager(CuratorFramework curatorFramework, String processName) {
+        this(curatorFramework, processName, DEFAULT_MAX_ATTEMPTS, DEFAULT_TIMEOUT, new MetricRegistry());
+    }
+
+    public NodeIdManager(
+            @NonNull CuratorFramework curatorFramework,
+            @NonNull String processName,
+            int maxAttempts,
+            @NonNull Duration timeout,
+            @NonNull MetricRegistry metricRegistry) {
+        this(curatorFramework, processName, maxAttempts, timeout, metricRegistry, null);
+    }
+
+    /**
+     * @param hintFile File to remember the acquired node id in across restarts. Should live on storage that survives
+     *                 process restarts but is not shared between instances. Null to disable.
+     */
+    public NodeIdManager(
+            @NonNull CuratorFramework curatorFramework,
+            @NonNull String processName,
+            int maxAttempts,
+            @NonNull Duration timeout,
+            @NonNull MetricRegistry metricRegistry,
+            Path hintFile) {
+        Preconditions.checkArgument(maxAttempts > 0, "Max attempts must be positive");
+        Preconditions.checkArgument(!timeout.isNegative() && !timeout.isZero(), "Timeout must be positive");
         this.curatorFramework = curatorFramework;
         this.secureRandom = new SecureRandom(Long.toBinaryString(System.currentTimeMillis()).getBytes());
         this.pathUtils = new CuratorPathUtils(processName);
+        this.maxAttempts = maxAttempts;
+        this.timeout = timeout;
+        this.acquisitionTimer = metricRegistry.timer(MetricRegistry.name(NodeIdManager.class, "acquisition"));
+        this.attemptsHistogram = metricRegistry.histogram(MetricRegistry.name(NodeIdManager.class, "attempts"));
+        this.hintFile = hintFile;
     }
 
+    /**
+     * Acquire a node id
+     *
+     * @return Acquired node id
+     * @throws IllegalStateException if no id could be acquired within the configured attempts and time
+     */
     public int fixNodeId() {
+        val start = System.nanoTime();
+        val deadline = start + timeout.toNanos();
+        awaitConnection(deadline);
+        int attempts = 0;
+        val hint = readHint();
+        if (null != hint) {
+            attempts++;
+            if (claim(hint.getNode())) {
+                return acquired(hint.getNode(), start, attempts);
+            }
+            if (awaitRelease(hint, deadline)) {
+                attempts++;
+                if (claim(hint.getNode())) {
+                    return acquired(hint.getNode(), start, attempts);
+                }
+            }
+        }
+        int[] free = null;
+        int freeCount = 0;
+        //At least one scan even if the hint used up the attempts or time, so a held hint can't fail acquisition alone
+        boolean scanned = false;
+        while (!scanned || (attempts < maxAttempts && deadline - System.nanoTime() > 0)) {
+            scanned = true;
+            if (freeCount == 0) {
+                free = freeNodes();
+                freeCount = free.length;
+                if (freeCount == 0) {
+                    throw new IllegalStateException("All node ids are taken under " + pathUtils.parentPath());
+                }
+            }
+            val index = secureRandom.nextInt(freeCount);
+            val candidate = free[index];
+            free[index] = free[--freeCount];
+            attempts++;
+            if (claim(candidate)) {
+                return acquired(candidate, start, attempts);
+            }
+            freeCount = 0;
+        }
+        attemptsHistogram.update(attempts);
+        throw new IllegalStateException(String.format("Could not acquire node id in %d attempt(s) within %s",
+                                                      attempts, timeout));
+    }
+
+    @Override
+    public int acquire() {
+        return fixNodeId();
+    }
+
+    /**
+     * Make sure the node for the current node id exists and belongs to the current session, re-creating it if it was
+     * removed along with an expired session
+     *
+     * @return true if the current session holds the node id, false if another session has taken it
+     * @throws Exception on ZooKeeper errors
+     */
+    public boolean reassertNodeId() throws Exception {
+        val path = pathUtils.path(node);
+        val sessionId = curatorFramework.getZookeeperClient().getZooKeeper().getSessionId();
+        val stat = curatorFramework.checkExists().forPath(path);
+        if (null != stat) {
+            return stat.getEphemeralOwner() == sessionId;
+        }
+        try {
+            curatorFramework.create()
+                    .creatingParentContainersIfNeeded()
+                    .withMode(CreateMode.EPHEMERAL)
+                    .forPath(path);
+        }
+        catch (KeeperException.NodeExistsException e) {
+            return false;
+        }
+        writeHint(node);
+        return true;
+    }
+
+    private int acquired(int candidate, long start, int attempts) {
+        node = candidate;
+        val elapsed = System.nanoTime() - start;
+        acquisitionTimer.update(elapsed, TimeUnit.NANOSECONDS);
+        attemptsHistogram.update(attempts);
+        log.info("Node will be set to node id {}. Took {} attempt(s) and {} ms",
+                 node, attempts, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        writeHint(candidate);
+        return node;
+    }
+
+    /**
+     * Wait for the node of the hinted id to be deleted, if it is held by the session recorded in the hint
+     *
+     * @return true if the node is gone
+     */
+    private boolean awaitRelease(NodeIdHint hint, long deadline) {
+        val released = new CountDownLatch(1);
+        try {
+            val stat = curatorFramework.checkExists()
+                    .usingWatcher((CuratorWatcher) event -> {
+                        if (event.getType() == Watcher.Event.EventType.NodeDeleted) {
+                            released.countDown();
+                        }
+                    })
+                    .forPath(pathUtils.path(hint.getNode()));
+            if (null == stat) {
+                return true;
+            }
+            if (stat.getEphemeralOwner() != hint.getSessionId()) {
+                log.info("Hinted node id {} is held by another session, acquiring a new one", hint.getNode());
+                return false;
+            }
+            //Leave at least half of the remaining time for acquiring a new id if the old one isn't released
+            val waitMillis = Math.min(hint.getSessionTimeoutMs(),
+                                      TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) / 2);
+            log.info("Hinted node id {} is still held by the previous session, waiting up to {} ms for it to expire",
+                     hint.getNode(), waitMillis);
+            return released.await(Math.max(0, waitMillis), TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for hinted node id", e);
+        }
+        catch (Exception e) {
+            log.warn("Could not check hinted node id {}: {}", hint.getNode(), e.getMessage());
+            return false;
+        }
+    }
+
+    private NodeIdHint readHint() {
+        if (null == hintFile || !Files.isRegularFile(hintFile)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(hintFile, StandardCharsets.UTF_8)) {
+            val properties = new Properties();
+            properties.load(reader);
+            val hint = new NodeIdHint(Integer.parseInt(properties.getProperty(HINT_NODE)),
+                                      Long.parseLong(properties.getProperty(HINT_SESSION_ID)),
+                                      Long.parseLong(properties.getProperty(HINT_SESSION_TIMEOUT_MS)));
+            if (hint.getNode() < 0 || hint.getNode() >= Constants.MAX_NUM_NODES) {
+                log.warn("Ignoring out of range node id {} in hint file {}", hint.getNode(), hintFile);
+                return null;
+            }
+            return hint;
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable node id hint file {}: {}", hintFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeHint(int acquired) {
+        if (null == hintFile) {
+            return;
+        }
+        try {
+            val zooKeeper = curatorFramework.getZookeeperClient().getZooKeeper();
+            val properties = new Properties();
+            properties.setProperty(HINT_NODE, Integer.toString(acquired));
+            properties.setProperty(HINT_SESSION_ID, Long.toString(zooKeeper.getSessionId()));
+            properties.setProperty(HINT_SESSION_TIMEOUT_MS, Integer.toString(zooKeeper.getSessionTimeout()));
+            val parent = hintFile.toAbsolutePath().getParent();
+            if (null != parent) {
+                Files.createDirectories(parent);
+            }
+            val temp = hintFile.resolveSibling(hintFile.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Last acquired node id");
+            }
+            Files.move(temp, hintFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (Exception e) {
+            log.warn("Could not write node id hint file {}: {}", hintFile, e.getMessage());
+        }
+    }
+
+    private void awaitConnection(long deadline) {
         try {
             log.info("Waiting for curator to start");
-            curatorFramework.blockUntilConnected();
+            val remainingMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            if (!curatorFramework.blockUntilConnected((int) Math.min(Integer.MAX_VALUE, remainingMillis),
+                                                      TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Could not connect to zookeeper within " + timeout);
+            }
             log.info("Curator started");
-        } catch (InterruptedException e) {
-            log.error("Wait for curator start interrupted", e);
+        }
+        catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            throw new IllegalStateException("Wait for curator start interrupted", e);
         }
-        val retryer = RetryerBuilder.<Boolean>newBuilder()
-                .retryIfResult(aBoolean -> Objects.equals(aBoolean, false))
-                .retryIfException()
-                .withStopStrategy(StopStrategies.neverStop())
-                .build();
-        try {
-            retryer.call(() -> {
-                node = secureRandom.nextInt(Constants.MAX_NUM_NODES);
-                val path = pathUtils.path(node);
-                try {
-                    curatorFramework.create()
-                            .creatingParentContainersIfNeeded()
-                            .withMode(CreateMode.EPHEMERAL)
-                            .forPath(path);
-                } catch (KeeperException.NodeExistsException e) {
-                    log.warn("Collision on node {}, will retry with new node.", node);
-                    return false;
+    }
+
+    private int[] freeNodes() {
+        val taken = new boolean[Constants.MAX_NUM_NODES];
+        for (String child : children()) {
+            try {
+                val existing = Integer.parseInt(child);
+                if (existing >= 0 && existing < Constants.MAX_NUM_NODES) {
+                    taken[existing] = true;
                 }
-                log.info("Node will be set to node id {}", node);
-                return true;
-            });
-        } catch (RetryException e) {
-            log.error("Error creating node", e);
-        } catch (ExecutionException e) {
-            log.error("Execution exception while creating node", e);
+            }
+            catch (NumberFormatException e) {
+                log.warn("Ignoring unexpected child {} under {}", child, pathUtils.parentPath());
+            }
         }
-        return node;
+        val free = new int[Constants.MAX_NUM_NODES];
+        int count = 0;
+        for (int i = 0; i < Constants.MAX_NUM_NODES; i++) {
+            if (!taken[i]) {
+                free[count++] = i;
+            }
+        }
+        val result = new int[count];
+        System.arraycopy(free, 0, result, 0, count);
+        return result;
+    }
+
+    private List<String> children() {
+        try {
+            return curatorFramework.getChildren().forPath(pathUtils.parentPath());
+        }
+        catch (KeeperException.NoNodeException e) {
+            return List.of();
+        }
+        catch (Exception e) {
+            log.warn("Could not list node ids under {}: {}", pathUtils.parentPath(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private boolean claim(int candidate) {
+        try {
+            curatorFramework.create()
+                    .creatingParentContainersIfNeeded()
+                    .withMode(CreateMode.EPHEMERAL)
+                    .forPath(pathUtils.path(candidate));
+            return true;
+        }
+        catch (KeeperException.NodeExistsException e) {
+            log.warn("Collision on node {}, will rescan free node ids", candidate);
+            return false;
+        }
+        catch (Exception e) {
+            log.warn("Error claiming node {}: {}", candidate, e.getMessage());
+            return false;
+        }
+    }
+
+    @Value
+    private static class NodeIdHint {
+        int node;
+        long sessionId;
+        long sessionTimeoutMs;
     }
 }
@@ -0,0 +1,26 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import java.io.Closeable;
+
+/**
+ * Source of the node id that {@link IdGenerator} embeds in generated ids. The id must not be in use by any other
+ * process generating ids in the same id space for as long as this provider is open.
+ */
+public interface NodeIdProvider extends Closeable {
+
+    /**
+     * Acquire a node id, blocking till one is available
+     *
+     * @return Acquired node id in the range [0, {@link Constants#MAX_NUM_NODES})
+     * @throws IllegalStateException if no id could be acquired
+     */
+    int acquire();
+
+    /**
+     * Release the acquired node id
+     */
+    @Override
+    default void close() {
+        //Nothing to release by default
+    }
+}
@@ -0,0 +1,19 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+/**
+ * Node id providers that can be selected from configuration
+ */
+public enum NodeIdProviderType {
+    /**
+     * Ids are claimed as ephemeral nodes on zookeeper. See {@link NodeIdManager}
+     */
+    ZOOKEEPER,
+    /**
+     * A fixed id is taken from configuration. See {@link StaticNodeIdProvider}
+     */
+    STATIC,
+    /**
+     * Ids are claimed by locking slot files in a directory local to the host. See {@link FileLockNodeIdProvider}
+     */
+    FILE_LOCK
+}
@@ -0,0 +1,60 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import lombok.val;
+
+/**
+ * Hands out nonces claimed in bulk from a {@link CollisionChecker}, one millisecond at a time.
+ * At most {@link #MAX_CLAIMED_PER_MS} nonces are claimed in any millisecond, so that a consumer with unbounded demand
+ * leaves the rest for other generators sharing the collision checker.
+ * Not thread safe, every consumer needs its own instance.
+ */
+class NonceBatch {
+    static final int MAX_CLAIMED_PER_MS = Constants.MAX_ID_PER_MS / 2;
+
+    private final CollisionChecker collisionChecker;
+    private final int[] nonces;
+    private long time;
+    private int position;
+    private int count;
+    private int claimedInMs;
+
+    NonceBatch(CollisionChecker collisionChecker, int maxBatchSize) {
+        this.collisionChecker = collisionChecker;
+        this.nonces = new int[Math.max(1, Math.min(maxBatchSize, MAX_CLAIMED_PER_MS))];
+    }
+
+    /**
+     * Returns the next id for this node in packed form.
+     *
+     * @param wanted Number of ids the caller expects to consume. Used to limit how many nonces are claimed at a time.
+     * @return Packed id as per {@link PackedIds}
+     */
+    long nextPacked(long wanted) {
+        if (position == count) {
+            refill(wanted);
+        }
+        return PackedIds.pack(time, IdGenerator.nodeId(), nonces[position++]);
+    }
+
+    private void refill(long wanted) {
+        while (true) {
+            val now = System.currentTimeMillis();
+            val claimed = now == time ? claimedInMs : 0;
+            val batchSize = (int) Math.min(Math.max(1, Math.min(wanted, nonces.length)),
+                                           MAX_CLAIMED_PER_MS - claimed);
+            if (batchSize > 0) {
+                count = collisionChecker.claim(now, nonces, batchSize);
+                if (count > 0) {
+                    time = now;
+                    claimedInMs = claimed + count;
+                    position = 0;
+                    return;
+                }
+            }
+            //Share of this millisecond used up or all nonces taken, wait for the clock instead of retrying
+            while (System.currentTimeMillis() == now) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.google.common.base.Preconditions;
+import lombok.experimental.UtilityClass;
+
+import java.util.Date;
+
+/**
+ * Packs the time, node and nonce of an id into a single long.
+ * Layout from the most significant bit: 40 bits of milliseconds since {@link #EPOCH_MILLIS}, 14 bits of node id and
+ * 10 bits of nonce. Packed values sort in generation order when compared with {@link Long#compareUnsigned}.
+ * The layout, including the epoch, is part of the stored form of packed ids and must not change.
+ */
+@UtilityClass
+public class PackedIds {
+    /**
+     * 2015-01-01T00:00:00Z, ahead of the oldest ids generated by this library
+     */
+    public static final long EPOCH_MILLIS = 1_420_070_400_000L;
+
+    private static final int NONCE_BITS = 10;
+    private static final int NODE_BITS = 14;
+    private static final int TIME_SHIFT = NODE_BITS + NONCE_BITS;
+    private static final long MAX_TIME_OFFSET = (1L << (Long.SIZE - TIME_SHIFT)) - 1;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long NONCE_MASK = (1L << NONCE_BITS) - 1;
+
+    public static boolean isPackable(long timeInMillis) {
+        final long offset = timeInMillis - EPOCH_MILLIS;
+        return offset >= 0 && offset <= MAX_TIME_OFFSET;
+    }
+
+    public static long pack(long timeInMillis, int node, int nonce) {
+        Preconditions.checkArgument(isPackable(timeInMillis), "Time out of packable range");
+        Preconditions.checkArgument(node >= 0 && node < Constants.MAX_NUM_NODES, "Node out of packable range");
+        Preconditions.checkArgument(nonce >= 0 && nonce < Constants.MAX_ID_PER_MS, "Nonce out of packable range");
+        return ((timeInMillis - EPOCH_MILLIS) << TIME_SHIFT) | ((long) node << NONCE_BITS) | nonce;
+    }
+
+    public static long pack(final Id id) {
+        return pack(id.getGeneratedDate().getTime(), id.getNode(), id.getExponent());
+    }
+
+    public static long time(long packed) {
+        return (packed >>> TIME_SHIFT) + EPOCH_MILLIS;
+    }
+
+    public static int node(long packed) {
+        return (int) ((packed >>> NONCE_BITS) & NODE_MASK);
+    }
+
+    public static int nonce(long packed) {
+        return (int) (packed & NONCE_MASK);
+    }
+
+    public static Date generatedDate(long packed) {
+        return new Date(time(packed));
+    }
+}
@@ -0,0 +1,25 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.google.common.base.Preconditions;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out a fixed node id. Useful for batch jobs and tests where uniqueness of the id is ensured by deployment and
+ * no coordination is needed.
+ */
+@Slf4j
+public class StaticNodeIdProvider implements NodeIdProvider {
+    private final int node;
+
+    public StaticNodeIdProvider(int node) {
+        Preconditions.checkArgument(node >= 0 && node < Constants.MAX_NUM_NODES,
+                                    "Node id must be between 0 and %s", Constants.MAX_NUM_NODES - 1);
+        this.node = node;
+    }
+
+    @Override
+    public int acquire() {
+        log.info("Node will be set to configured node id {}", node);
+        return node;
+    }
+}
@@ -0,0 +1,125 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maps ids to RFC 9562 version 7 UUIDs. The 48 bit unix millisecond timestamp comes first, so UUIDs sort in
+ * generation order. The 12 bit rand_a field holds the nonce and the top 14 bits of rand_b hold the node id.
+ * The remaining 48 bits of rand_b are random as the RFC requires, so converting the same id twice gives two different
+ * UUIDs that both parse back to that id.
+ */
+@UtilityClass
+public class UuidIds {
+    /**
+     * Length of the canonical string form of a UUID
+     */
+    public static final int LENGTH = 36;
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC = 0x8000_0000_0000_0000L;
+    private static final long VERSION_MASK = 0xF000L;
+    private static final long VARIANT_MASK = 0xC000_0000_0000_0000L;
+    private static final int NODE_SHIFT = 48;
+    private static final long NODE_MASK = 0x3FFFL;
+    private static final long NONCE_MASK = 0xFFFL;
+    private static final long LOW_MASK = (1L << NODE_SHIFT) - 1;
+
+    public static UUID toUuid(long timeInMillis, int node, int nonce) {
+        return new UUID(mostSignificantBits(timeInMillis, nonce), leastSignificantBits(node));
+    }
+
+    public static UUID toUuid(@NonNull final Id id) {
+        return toUuid(id.getGeneratedDate().getTime(), id.getNode(), id.getExponent());
+    }
+
+    /**
+     * Convert an id in the packed form described in {@link PackedIds}
+     */
+    public static UUID fromPacked(long packed) {
+        return toUuid(PackedIds.time(packed), PackedIds.node(packed), PackedIds.nonce(packed));
+    }
+
+    /**
+     * @return Packed form of the id held in the UUID, or {@link IdParsers#INVALID} if the UUID was not created here
+     */
+    public static long toPacked(@NonNull final UUID uuid) {
+        if (!isValid(uuid)) {
+            return IdParsers.INVALID;
+        }
+        return PackedIds.pack(time(uuid), node(uuid), nonce(uuid));
+    }
+
+    /**
+     * Parse a UUID created from an id. The id string of the result is the canonical UUID string.
+     *
+     * @param uuid UUID to parse
+     * @return Id if the UUID holds one
+     */
+    public static Optional<Id> parse(@NonNull final UUID uuid) {
+        if (!isValid(uuid)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Id(uuid.toString(), new Date(time(uuid)), node(uuid), nonce(uuid)));
+    }
+
+    /**
+     * Parse the canonical string form of a UUID created from an id. The last {@link #LENGTH} characters are read as
+     * the UUID and anything before them as prefix, same as for the other id formats. The id string of the result is
+     * the whole input.
+     *
+     * @param id UUID string, optionally prefixed, to parse
+     * @return Id if the string ends with a UUID holding one
+     */
+    public static Optional<Id> parse(final String id) {
+        if (null == id || id.length() < LENGTH) {
+            return Optional.empty();
+        }
+        final UUID uuid;
+        try {
+            uuid = UUID.fromString(id.substring(id.length() - LENGTH));
+        }
+        catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!isValid(uuid)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Id(id, new Date(time(uuid)), node(uuid), nonce(uuid)));
+    }
+
+    public static long mostSignificantBits(long timeInMillis, int nonce) {
+        return (timeInMillis << 16) | VERSION_7 | (nonce & NONCE_MASK);
+    }
+
+    public static long leastSignificantBits(int node) {
+        return VARIANT_RFC | ((node & NODE_MASK) << NODE_SHIFT) | (ThreadLocalRandom.current().nextLong() & LOW_MASK);
+    }
+
+    private static boolean isValid(UUID uuid) {
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        return (msb & VERSION_MASK) == VERSION_7
+                && (lsb & VARIANT_MASK) == VARIANT_RFC
+                && node(uuid) < 10_000
+                && nonce(uuid) < 1_000
+                && PackedIds.isPackable(time(uuid));
+    }
+
+    private static long time(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    private static int node(UUID uuid) {
+        return (int) ((uuid.getLeastSignificantBits() >>> NODE_SHIFT) & NODE_MASK);
+    }
+
+    private static int nonce(UUID uuid) {
+        return (int) (uuid.getMostSignificantBits() & NONCE_MASK);
+    }
+}
@@ -32,7 +32,34 @@ public class JavaHashCodeBasedKeyPartitioner implements KeyPartitioner {
 
     @Override
     public int partition(Id id) {
-        var hashCode = id.getId().hashCode();
+        return toPartition(id.getId().hashCode(), maxPartitions);
+    }
+
+    @Override
+    public void partitionAll(CharSequence[] ids, int[] out) {
+        KeyPartitioner.checkBulkArguments(ids.length, out);
+        final int partitions = maxPartitions;
+        for (int i = 0; i < ids.length; i++) {
+            out[i] = toPartition(hashCode(ids[i]), partitions);
+        }
+    }
+
+    /**
+     * Same as {@link String#hashCode()} without converting to a string first
+     */
+    private static int hashCode(CharSequence chars) {
+        if (chars instanceof String) {
+            return chars.hashCode();
+        }
+        int hashCode = 0;
+        final int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            hashCode = 31 * hashCode + chars.charAt(i);
+        }
+        return hashCode;
+    }
+
+    private static int toPartition(int hashCode, int maxPartitions) {
         hashCode *= hashCode < 0 ? -1 : 1;
         return hashCode % maxPartitions;
     }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import io.appform.dropwizard.discovery.bundle.id.PackedIds;
+
+/**
+ * Partitions using jump consistent hashing. When the number of partitions grows from n to n + 1, only about
+ * 1/(n + 1) of the keys move to a new partition, whereas modulo based partitioners move nearly all of them.
+ * Ids are keyed on their time, node and exponent. As in {@link MurmurComponentKeyPartitioner}, ids in the default
+ * format use the wall clock time digits written in the id, so the bucket does not depend on the timezone of the
+ * process reading the id. Ids without a generated date fall back to the id string chars.
+ */
+public class JumpConsistentHashKeyPartitioner implements PackedKeyPartitioner {
+
+    private final int maxPartitions;
+
+    public JumpConsistentHashKeyPartitioner(int maxPartitions) {
+        Preconditions.checkArgument(maxPartitions > 0, "Provide a non-negative and non-zero partition count");
+        this.maxPartitions = maxPartitions;
+    }
+
+    @Override
+    public int partition(Id id) {
+        final long wallClock = IdParsers.parseWallClockPacked(id.getId());
+        if (wallClock != IdParsers.INVALID) {
+            return partitionPacked(wallClock, maxPartitions);
+        }
+        final var generatedDate = id.getGeneratedDate();
+        final long key = null != generatedDate
+                         ? Murmur3.hash64Components(generatedDate.getTime(), id.getNode(), id.getExponent())
+                         : Murmur3.hashChars(id.getId());
+        return Hashing.consistentHash(key, maxPartitions);
+    }
+
+    @Override
+    public void partitionAll(CharSequence[] ids, int[] out) {
+        KeyPartitioner.checkBulkArguments(ids.length, out);
+        final int partitions = maxPartitions;
+        for (int i = 0; i < ids.length; i++) {
+            final long wallClock = IdParsers.parseWallClockPacked(ids[i]);
+            out[i] = wallClock == IdParsers.INVALID
+                     ? -1
+                     : partitionPacked(wallClock, partitions);
+        }
+    }
+
+    @Override
+    public void partitionAll(long[] packedIds, int[] out) {
+        KeyPartitioner.checkBulkArguments(packedIds.length, out);
+        final int partitions = maxPartitions;
+        for (int i = 0; i < packedIds.length; i++) {
+            final long wallClock = IdParsers.toWallClockPacked(packedIds[i]);
+            out[i] = wallClock == IdParsers.INVALID
+                     ? -1
+                     : partitionPacked(wallClock, partitions);
+        }
+    }
+
+    private static int partitionPacked(long packed, int partitions) {
+        final long time = PackedIds.time(packed);
+        final int node = PackedIds.node(packed);
+        final int exponent = PackedIds.nonce(packed);
+        return Hashing.consistentHash(Murmur3.hash64Components(time, node, exponent), partitions);
+    }
+}
@@ -17,7 +17,9 @@
 
 package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
 
+import com.google.common.base.Preconditions;
 import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
 
 /**
  * Takes an id and generates a partition
@@ -25,4 +27,25 @@ import io.appform.dropwizard.discovery.bundle.id.Id;
 @FunctionalInterface
 public interface KeyPartitioner {
     int partition(Id id);
+
+    /**
+     * Partitions ids in bulk, writing the partition of ids[i] into out[i].
+     * Ids that could not be parsed get a partition of -1.
+     * The default implementation parses every id, implementations override this to work on the raw chars.
+     *
+     * @param ids Ids to partition
+     * @param out Array to write partitions into, at least as long as ids
+     */
+    default void partitionAll(CharSequence[] ids, int[] out) {
+        checkBulkArguments(ids.length, out);
+        for (int i = 0; i < ids.length; i++) {
+            out[i] = IdGenerator.parse(ids[i].toString())
+                    .map(this::partition)
+                    .orElse(-1);
+        }
+    }
+
+    static void checkBulkArguments(int count, int[] out) {
+        Preconditions.checkArgument(out.length >= count, "Output array is smaller than the number of ids");
+    }
 }
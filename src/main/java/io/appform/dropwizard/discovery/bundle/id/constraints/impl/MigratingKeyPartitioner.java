@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Partitioner for moving from one partitioning scheme to another.
+ * Partitions using the scheme selected by {@link Mode}, and can report the partition of an id under both schemes
+ * so that callers can find keys that need to move.
+ */
+public class MigratingKeyPartitioner implements KeyPartitioner {
+
+    public enum Mode {
+        /**
+         * Partition using the legacy scheme
+         */
+        LEGACY,
+        /**
+         * Partition using the current scheme
+         */
+        CURRENT
+    }
+
+    private final KeyPartitioner legacy;
+    private final KeyPartitioner current;
+    @Getter
+    private final Mode mode;
+
+    public MigratingKeyPartitioner(@NonNull KeyPartitioner legacy,
+                                   @NonNull KeyPartitioner current,
+                                   @NonNull Mode mode) {
+        this.legacy = legacy;
+        this.current = current;
+        this.mode = mode;
+    }
+
+    @Override
+    public int partition(Id id) {
+        return mode == Mode.LEGACY
+               ? legacy.partition(id)
+               : current.partition(id);
+    }
+
+    @Override
+    public void partitionAll(CharSequence[] ids, int[] out) {
+        if (mode == Mode.LEGACY) {
+            legacy.partitionAll(ids, out);
+        }
+        else {
+            current.partitionAll(ids, out);
+        }
+    }
+
+    public Partitions partitions(Id id) {
+        return new Partitions(legacy.partition(id), current.partition(id));
+    }
+
+    /**
+     * Partition of an id under both schemes
+     */
+    @Value
+    public static class Partitions {
+        int legacy;
+        int current;
+
+        public boolean isMoved() {
+            return legacy != current;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Allocation free murmur3 x86 32 bit hashing over primitives and chars.
+ * Output matches guava's murmur3_32_fixed for the same input.
+ */
+@UtilityClass
+class Murmur3 {
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+
+    /**
+     * Same as hashing the little endian bytes of time, node and exponent in that order.
+     */
+    static int hashComponents(long time, int node, int exponent) {
+        int h1 = 0;
+        h1 = mixH1(h1, mixK1((int) time));
+        h1 = mixH1(h1, mixK1((int) (time >>> 32)));
+        h1 = mixH1(h1, mixK1(node));
+        h1 = mixH1(h1, mixK1(exponent));
+        return fmix(h1, 16);
+    }
+
+    /**
+     * Same as guava's hashUnencodedChars.
+     */
+    static int hashChars(CharSequence input) {
+        int h1 = 0;
+        final int length = input.length();
+        for (int i = 1; i < length; i += 2) {
+            h1 = mixH1(h1, mixK1(input.charAt(i - 1) | (input.charAt(i) << 16)));
+        }
+        if ((length & 1) == 1) {
+            h1 ^= mixK1(input.charAt(length - 1));
+        }
+        return fmix(h1, 2 * length);
+    }
+
+    /**
+     * 64 bit key derived from the time, node and exponent of an id using murmur3's 64 bit finalizer.
+     */
+    static long hash64Components(long time, int node, int exponent) {
+        return fmix64(time ^ fmix64(((long) node << 32) | exponent));
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static int mixK1(int k1) {
+        k1 *= C1;
+        k1 = Integer.rotateLeft(k1, 15);
+        k1 *= C2;
+        return k1;
+    }
+
+    private static int mixH1(int h1, int k1) {
+        h1 ^= k1;
+        h1 = Integer.rotateLeft(h1, 13);
+        h1 = h1 * 5 + 0xe6546b64;
+        return h1;
+    }
+
+    private static int fmix(int h1, int length) {
+        h1 ^= length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
+    }
+}
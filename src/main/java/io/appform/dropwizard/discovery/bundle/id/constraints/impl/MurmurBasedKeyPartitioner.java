@@ -22,7 +22,8 @@ import io.appform.dropwizard.discovery.bundle.id.Id;
 import java.nio.charset.StandardCharsets;
 
 /**
- *
+ * Hashes the {@link Id#toString()} representation, which makes partitions depend on the JVM timezone.
+ * Prefer {@link MurmurComponentKeyPartitioner} for new data.
  */
 @SuppressWarnings("unused")
 public class MurmurBasedKeyPartitioner implements KeyPartitioner {
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import com.google.common.base.Preconditions;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import io.appform.dropwizard.discovery.bundle.id.PackedIds;
+import io.appform.dropwizard.discovery.bundle.id.formatter.ZoneOffsets;
+
+/**
+ * Murmur3 based partitioner that hashes the time, node and exponent of an id directly.
+ * Ids in the default format are keyed on the wall clock time digits written in the id, so the partition of an id
+ * does not depend on the timezone of the process reading it. Ids in other formats carry the generation instant
+ * itself and are keyed on that. Unlike {@link MurmurBasedKeyPartitioner} it does not hash the prefix and does not
+ * allocate. Ids without a generated date fall back to hashing the id string chars.
+ * Packed ids are converted back to wall clock time with the {@link ZoneOffsets#zone()} they were parsed in.
+ * Use {@link MigratingKeyPartitioner} to move existing data over from {@link MurmurBasedKeyPartitioner}.
+ */
+public class MurmurComponentKeyPartitioner implements PackedKeyPartitioner {
+
+    private final int maxPartitions;
+
+    public MurmurComponentKeyPartitioner(int maxPartitions) {
+        Preconditions.checkArgument(maxPartitions > 0, "Provide a non-negative and non-zero partition count");
+        this.maxPartitions = maxPartitions;
+    }
+
+    @Override
+    public int partition(Id id) {
+        final long wallClock = IdParsers.parseWallClockPacked(id.getId());
+        if (wallClock != IdParsers.INVALID) {
+            return partitionPacked(wallClock, maxPartitions);
+        }
+        final var generatedDate = id.getGeneratedDate();
+        final int hashCode = null != generatedDate
+                             ? Murmur3.hashComponents(generatedDate.getTime(), id.getNode(), id.getExponent())
+                             : Murmur3.hashChars(id.getId());
+        return Math.floorMod(hashCode, maxPartitions);
+    }
+
+    @Override
+    public void partitionAll(CharSequence[] ids, int[] out) {
+        KeyPartitioner.checkBulkArguments(ids.length, out);
+        final int partitions = maxPartitions;
+        for (int i = 0; i < ids.length; i++) {
+            final long wallClock = IdParsers.parseWallClockPacked(ids[i]);
+            out[i] = wallClock == IdParsers.INVALID
+                     ? -1
+                     : partitionPacked(wallClock, partitions);
+        }
+    }
+
+    @Override
+    public void partitionAll(long[] packedIds, int[] out) {
+        KeyPartitioner.checkBulkArguments(packedIds.length, out);
+        final int partitions = maxPartitions;
+        for (int i = 0; i < packedIds.length; i++) {
+            final long wallClock = IdParsers.toWallClockPacked(packedIds[i]);
+            out[i] = wallClock == IdParsers.INVALID
+                     ? -1
+                     : partitionPacked(wallClock, partitions);
+        }
+    }
+
+    private static int partitionPacked(long packed, int partitions) {
+        final long time = PackedIds.time(packed);
+        final int node = PackedIds.node(packed);
+        final int exponent = PackedIds.nonce(packed);
+        return Math.floorMod(Murmur3.hashComponents(time, node, exponent), partitions);
+    }
+}
@@ -0,0 +1,17 @@
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+/**
+ * Partitioner that works on the time, node and nonce of an id alone, so it can also partition ids in the packed form
+ * described in {@link io.appform.dropwizard.discovery.bundle.id.PackedIds}. Packed ids don't carry the prefix, so
+ * partitioners that need the full id string don't implement this.
+ */
+public interface PackedKeyPartitioner extends KeyPartitioner {
+
+    /**
+     * Partitions packed ids in bulk, writing the partition of packedIds[i] into out[i]
+     *
+     * @param packedIds Packed ids to partition
+     * @param out       Array to write partitions into, at least as long as packedIds
+     */
+    void partitionAll(long[] packedIds, int[] out);
+}
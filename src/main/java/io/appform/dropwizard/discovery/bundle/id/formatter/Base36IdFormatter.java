@@ -1,10 +1,15 @@
 package io.appform.dropwizard.discovery.bundle.id.formatter;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import org.joda.time.DateTime;
 
 public class Base36IdFormatter implements IdFormatter {
 
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final int MAX_DIGITS = 15;
+    private static final long LOW_PART_BASE = 10_000_000L;
+
     private final IdFormatter idFormatter;
 
     public Base36IdFormatter(IdFormatter idFormatter) {
@@ -18,7 +23,57 @@ public class Base36IdFormatter implements IdFormatter {
         return toBase36(idFormatter.format(dateTime, nodeId, randomNonce));
     }
 
+    @Override
+    public void formatTo(final StringBuilder target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        if (!(idFormatter instanceof DefaultIdFormatter)) {
+            IdFormatter.super.formatTo(target, epochMillis, nodeId, randomNonce);
+            return;
+        }
+        final char[] digits = new char[MAX_DIGITS];
+        final int start = toBase36(epochMillis, nodeId, randomNonce, digits);
+        target.append(digits, start, MAX_DIGITS - start);
+    }
+
+    @Override
+    public void formatTo(final ByteBuffer target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        if (!(idFormatter instanceof DefaultIdFormatter)) {
+            IdFormatter.super.formatTo(target, epochMillis, nodeId, randomNonce);
+            return;
+        }
+        final char[] digits = new char[MAX_DIGITS];
+        for (int i = toBase36(epochMillis, nodeId, randomNonce, digits); i < MAX_DIGITS; i++) {
+            target.put((byte) digits[i]);
+        }
+    }
+
     private static String toBase36(final String payload) {
         return new BigInteger(payload).toString(36).toUpperCase();
     }
+
+    /**
+     * Base 36 digits of the 22 digit decimal id without going through {@link BigInteger}.
+     * The decimal value is held as high * 10^7 + low, with the time digits in high and node and nonce in low,
+     * and divided by 36 one digit at a time. Digits are written right aligned into the buffer.
+     *
+     * @return Index of the most significant digit in the buffer
+     */
+    private static int toBase36(long epochMillis, int nodeId, int randomNonce, char[] digits) {
+        long high = DefaultIdFormatter.timeDigits(epochMillis);
+        long low = nodeId * 1_000L + randomNonce;
+        int position = MAX_DIGITS;
+        do {
+            final long highRemainder = high % 36;
+            high /= 36;
+            final long combined = highRemainder * LOW_PART_BASE + low;
+            low = combined / 36;
+            digits[--position] = DIGITS[(int) (combined % 36)];
+        } while (high != 0 || low != 0);
+        return position;
+    }
 }
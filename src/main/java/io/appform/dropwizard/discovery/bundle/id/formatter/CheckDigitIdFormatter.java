@@ -0,0 +1,174 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import com.google.common.base.Preconditions;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import lombok.Getter;
+import lombok.NonNull;
+import org.joda.time.DateTime;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Appends an ISO 7064 MOD 37,36 check character to the output of a fixed width alphanumeric formatter, so that
+ * mistyped or truncated ids can be rejected with {@link #validate(CharSequence)} before they are parsed or looked up.
+ * The check catches all single character substitutions and nearly all adjacent transpositions. Letters are checked case
+ * insensitively and the check character itself is one of 0-9 and A-Z. The prefix is not covered.
+ * Ids must be read back with {@link #parse(String)}, as the parsers of the decorated format don't expect the check
+ * character.
+ */
+public class CheckDigitIdFormatter implements IdFormatter {
+
+    private static final int MODULUS = 36;
+    private static final char[] CHECK_CHARACTERS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final byte[] VALUES = values();
+
+    private final IdFormatter idFormatter;
+    @Getter
+    private final int payloadLength;
+    private final Function<String, Optional<Id>> payloadParser;
+
+    /**
+     * Decorate a formatter, parsing with the parser of the decorated format if it is one of the built in ones
+     *
+     * @param idFormatter   Formatter to decorate. Must only produce letters and digits.
+     * @param payloadLength Number of characters the decorated formatter always produces
+     */
+    public CheckDigitIdFormatter(@NonNull IdFormatter idFormatter, int payloadLength) {
+        this(idFormatter, payloadLength, defaultParser(idFormatter));
+    }
+
+    /**
+     * @param idFormatter   Formatter to decorate. Must only produce letters and digits.
+     * @param payloadLength Number of characters the decorated formatter always produces
+     * @param payloadParser Parser for ids of the decorated format, used by {@link #parse(String)}
+     */
+    public CheckDigitIdFormatter(
+            @NonNull IdFormatter idFormatter,
+            int payloadLength,
+            @NonNull Function<String, Optional<Id>> payloadParser) {
+        Preconditions.checkArgument(payloadLength > 0, "Payload length must be positive");
+        this.idFormatter = idFormatter;
+        this.payloadLength = payloadLength;
+        this.payloadParser = payloadParser;
+    }
+
+    @Override
+    public String format(final DateTime dateTime,
+                         final int nodeId,
+                         final int randomNonce) {
+        final String payload = idFormatter.format(dateTime, nodeId, randomNonce);
+        return payload + checkCharacter(payload, 0, payload.length());
+    }
+
+    @Override
+    public void formatTo(final StringBuilder target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        final int start = target.length();
+        idFormatter.formatTo(target, epochMillis, nodeId, randomNonce);
+        target.append(checkCharacter(target, start, target.length()));
+    }
+
+    @Override
+    public void formatTo(final ByteBuffer target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        final int start = target.position();
+        idFormatter.formatTo(target, epochMillis, nodeId, randomNonce);
+        final int end = target.position();
+        Preconditions.checkState(end - start == payloadLength, "Unexpected payload length %s", end - start);
+        int product = MODULUS;
+        for (int i = start; i < end; i++) {
+            final int value = value((char) (target.get(i) & 0xFF));
+            Preconditions.checkState(value >= 0, "Formatter output is not alphanumeric");
+            product = step(product, value);
+        }
+        target.put((byte) CHECK_CHARACTERS[(MODULUS + 1 - product) % MODULUS]);
+    }
+
+    /**
+     * Check the trailing payload and check character of an id. Does not allocate.
+     *
+     * @param id Id to check, including any prefix
+     * @return true if the id is long enough and its check character matches
+     */
+    public boolean validate(final CharSequence id) {
+        if (null == id || id.length() < payloadLength + 1) {
+            return false;
+        }
+        int product = MODULUS;
+        int sum = 0;
+        for (int i = id.length() - payloadLength - 1; i < id.length(); i++) {
+            final int value = value(id.charAt(i));
+            if (value < 0) {
+                return false;
+            }
+            sum = (product + value) % MODULUS;
+            product = step(product, value);
+        }
+        return sum == 1;
+    }
+
+    /**
+     * Validate an id, strip its check character and parse the rest with the parser of the decorated format
+     *
+     * @param id Id to parse, including any prefix
+     * @return Id holding the given string if the check character matches and the rest could be parsed
+     */
+    public Optional<Id> parse(final String id) {
+        if (!validate(id)) {
+            return Optional.empty();
+        }
+        return payloadParser.apply(id.substring(0, id.length() - 1))
+                .map(parsed -> new Id(id, parsed.getGeneratedDate(), parsed.getNode(), parsed.getExponent()));
+    }
+
+    private char checkCharacter(CharSequence payload, int from, int to) {
+        Preconditions.checkState(to - from == payloadLength, "Unexpected payload length %s", to - from);
+        int product = MODULUS;
+        for (int i = from; i < to; i++) {
+            final int value = value(payload.charAt(i));
+            Preconditions.checkState(value >= 0, "Formatter output is not alphanumeric");
+            product = step(product, value);
+        }
+        return CHECK_CHARACTERS[(MODULUS + 1 - product) % MODULUS];
+    }
+
+    private static Function<String, Optional<Id>> defaultParser(IdFormatter idFormatter) {
+        if (idFormatter instanceof DefaultIdFormatter) {
+            return IdParsers::parse;
+        }
+        if (idFormatter instanceof CrockfordBase32IdFormatter) {
+            return IdParsers::parseBase32;
+        }
+        if (idFormatter instanceof CompactIdFormatter) {
+            return ((CompactIdFormatter) idFormatter)::parse;
+        }
+        return id -> Optional.empty();
+    }
+
+    private static int step(int product, int value) {
+        final int sum = (product + value) % MODULUS;
+        return ((sum == 0 ? MODULUS : sum) * 2) % (MODULUS + 1);
+    }
+
+    private static int value(char c) {
+        return c < VALUES.length ? VALUES[c] : -1;
+    }
+
+    private static byte[] values() {
+        final byte[] values = new byte['z' + 1];
+        Arrays.fill(values, (byte) -1);
+        for (int i = 0; i < CHECK_CHARACTERS.length; i++) {
+            values[CHECK_CHARACTERS[i]] = (byte) i;
+            values[Character.toLowerCase(CHECK_CHARACTERS[i])] = (byte) i;
+        }
+        return values;
+    }
+}
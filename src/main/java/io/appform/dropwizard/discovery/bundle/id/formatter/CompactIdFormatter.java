@@ -0,0 +1,154 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import com.google.common.base.Preconditions;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import lombok.Getter;
+import org.joda.time.DateTime;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Formats ids as 11 base62 characters holding milliseconds since a configurable epoch (40 bits, about 34 years),
+ * node (14 bits) and nonce (10 bits). The digits are in ascii order and fixed width, so ids of the same prefix sort
+ * in time order. Use one instance per domain with an epoch close to the domain's first id, and parse ids with the
+ * same instance.
+ */
+public class CompactIdFormatter implements IdFormatter {
+
+    /**
+     * Number of characters in every formatted id
+     */
+    public static final int LENGTH = 11;
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final byte[] DIGIT_VALUES = digitValues();
+    private static final int NONCE_BITS = 10;
+    private static final int NODE_BITS = 14;
+    private static final int TIME_SHIFT = NODE_BITS + NONCE_BITS;
+    private static final long MAX_TIME_OFFSET = (1L << (Long.SIZE - TIME_SHIFT)) - 1;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long NONCE_MASK = (1L << NONCE_BITS) - 1;
+
+    @Getter
+    private final long epochMillis;
+
+    public CompactIdFormatter(long epochMillis) {
+        Preconditions.checkArgument(epochMillis >= 0, "Epoch must not be before 1970-01-01");
+        this.epochMillis = epochMillis;
+    }
+
+    @Override
+    public String format(final DateTime dateTime,
+                         final int nodeId,
+                         final int randomNonce) {
+        return new String(encode(pack(dateTime.getMillis(), nodeId, randomNonce)));
+    }
+
+    @Override
+    public void formatTo(final StringBuilder target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        target.append(encode(pack(epochMillis, nodeId, randomNonce)));
+    }
+
+    @Override
+    public void formatTo(final ByteBuffer target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        for (char digit : encode(pack(epochMillis, nodeId, randomNonce))) {
+            target.put((byte) digit);
+        }
+    }
+
+    /**
+     * Decode the last {@link #LENGTH} characters of an id formatted by this instance
+     *
+     * @param id Id to decode
+     * @return Time, node and nonce packed as described in the class comment, or {@link IdParsers#INVALID}
+     */
+    public long decode(final CharSequence id) {
+        if (null == id || id.length() < LENGTH) {
+            return IdParsers.INVALID;
+        }
+        final int start = id.length() - LENGTH;
+        long value = 0;
+        for (int i = start; i < id.length(); i++) {
+            final char c = id.charAt(i);
+            final int digit = c < DIGIT_VALUES.length ? DIGIT_VALUES[c] : -1;
+            if (digit < 0) {
+                return IdParsers.INVALID;
+            }
+            // Ten digits always fit in 63 bits, only the last one can overflow
+            if (i == id.length() - 1
+                    && Long.compareUnsigned(value, Long.divideUnsigned(-1L - digit, DIGITS.length)) > 0) {
+                return IdParsers.INVALID;
+            }
+            value = value * DIGITS.length + digit;
+        }
+        if (node(value) >= 10_000 || nonce(value) >= 1_000) {
+            return IdParsers.INVALID;
+        }
+        return value;
+    }
+
+    /**
+     * Parse an id formatted by this instance
+     *
+     * @param id Id to parse
+     * @return Id if it could be parsed
+     */
+    public Optional<Id> parse(final String id) {
+        final long value = decode(id);
+        if (value == IdParsers.INVALID) {
+            return Optional.empty();
+        }
+        return Optional.of(new Id(id, new Date(time(value)), node(value), nonce(value)));
+    }
+
+    public long time(long value) {
+        return (value >>> TIME_SHIFT) + epochMillis;
+    }
+
+    public static int node(long value) {
+        return (int) ((value >>> NONCE_BITS) & NODE_MASK);
+    }
+
+    public static int nonce(long value) {
+        return (int) (value & NONCE_MASK);
+    }
+
+    private long pack(long timeInMillis, int nodeId, int nonce) {
+        final long offset = timeInMillis - epochMillis;
+        Preconditions.checkArgument(offset >= 0 && offset <= MAX_TIME_OFFSET,
+                                    "Time %s is out of range for epoch %s", timeInMillis, epochMillis);
+        return (offset << TIME_SHIFT) | ((long) nodeId << NONCE_BITS) | nonce;
+    }
+
+    private static char[] encode(long value) {
+        final char[] digits = new char[LENGTH];
+        int position = LENGTH;
+        // First step unsigned, the quotient then fits in a positive long
+        digits[--position] = DIGITS[(int) Long.remainderUnsigned(value, DIGITS.length)];
+        long remaining = Long.divideUnsigned(value, DIGITS.length);
+        while (position > 0) {
+            digits[--position] = DIGITS[(int) (remaining % DIGITS.length)];
+            remaining /= DIGITS.length;
+        }
+        return digits;
+    }
+
+    private static byte[] digitValues() {
+        final byte[] values = new byte['z' + 1];
+        Arrays.fill(values, (byte) -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            values[DIGITS[i]] = (byte) i;
+        }
+        return values;
+    }
+}
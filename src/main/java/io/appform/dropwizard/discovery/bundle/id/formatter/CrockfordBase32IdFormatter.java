@@ -0,0 +1,67 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import io.appform.dropwizard.discovery.bundle.id.PackedIds;
+import org.joda.time.DateTime;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Formats the packed form of an id (see {@link PackedIds}) as a fixed width, 13 character Crockford base32 string.
+ * Digits are written most significant first using an alphabet in ascii order, so ids of the same prefix sort
+ * lexicographically in generation order, which keeps index inserts append-only.
+ * Only times within the range of {@link PackedIds} can be formatted. Use {@link IdParsers#parseBase32Packed}
+ * to read ids back.
+ */
+public class CrockfordBase32IdFormatter implements IdFormatter {
+
+    /**
+     * Number of characters in every formatted id
+     */
+    public static final int LENGTH = 13;
+
+    /**
+     * Crockford base32 digits, in ascii order
+     */
+    public static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    private static final char[] DIGITS = ALPHABET.toCharArray();
+
+    @Override
+    public String format(final DateTime dateTime,
+                         final int nodeId,
+                         final int randomNonce) {
+        return new String(encode(PackedIds.pack(dateTime.getMillis(), nodeId, randomNonce)));
+    }
+
+    @Override
+    public void formatTo(final StringBuilder target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        final long packed = PackedIds.pack(epochMillis, nodeId, randomNonce);
+        for (int shift = (LENGTH - 1) * 5; shift >= 0; shift -= 5) {
+            target.append(DIGITS[(int) ((packed >>> shift) & 31)]);
+        }
+    }
+
+    @Override
+    public void formatTo(final ByteBuffer target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        final long packed = PackedIds.pack(epochMillis, nodeId, randomNonce);
+        for (int shift = (LENGTH - 1) * 5; shift >= 0; shift -= 5) {
+            target.put((byte) DIGITS[(int) ((packed >>> shift) & 31)]);
+        }
+    }
+
+    private static char[] encode(long packed) {
+        final char[] digits = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            digits[i] = DIGITS[(int) (packed & 31)];
+            packed >>>= 5;
+        }
+        return digits;
+    }
+}
@@ -4,9 +4,12 @@ import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import java.nio.ByteBuffer;
+
 public class DefaultIdFormatter implements IdFormatter {
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormat.forPattern("yyMMddHHmmssSSS");
+    private static final long MILLIS_PER_DAY = 86_400_000L;
 
     @Override
     public String format(final DateTime dateTime,
@@ -14,4 +17,71 @@ public class DefaultIdFormatter implements IdFormatter {
                          final int randomNonce) {
         return String.format("%s%04d%03d", DATE_TIME_FORMATTER.print(dateTime), nodeId, randomNonce);
     }
+
+    @Override
+    public void formatTo(final StringBuilder target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        final long digits = timeDigits(epochMillis);
+        appendDigits(target, digits, 15);
+        appendDigits(target, nodeId, 4);
+        appendDigits(target, randomNonce, 3);
+    }
+
+    @Override
+    public void formatTo(final ByteBuffer target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        final long digits = timeDigits(epochMillis);
+        putDigits(target, digits, 15);
+        putDigits(target, nodeId, 4);
+        putDigits(target, randomNonce, 3);
+    }
+
+    /**
+     * The yyMMddHHmmssSSS representation of the given time in the {@link ZoneOffsets#zone()} timezone, as a number
+     */
+    static long timeDigits(long epochMillis) {
+        final long localMillis = epochMillis + ZoneOffsets.offsetMillis(epochMillis);
+        final long days = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+        final long millisOfDay = Math.floorMod(localMillis, MILLIS_PER_DAY);
+
+        //Civil date from days since epoch, proleptic gregorian
+        final long z = days + 719_468L;
+        final long era = Math.floorDiv(z, 146_097L);
+        final long dayOfEra = z - era * 146_097L;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final long mp = (5 * dayOfYear + 2) / 153;
+        final long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        final long month = mp < 10 ? mp + 3 : mp - 9;
+        final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        final long hour = millisOfDay / 3_600_000L;
+        final long minute = millisOfDay / 60_000L % 60;
+        final long second = millisOfDay / 1_000L % 60;
+        final long millis = millisOfDay % 1_000L;
+        return (((((Math.floorMod(year, 100L) * 100 + month) * 100 + day) * 100 + hour) * 100 + minute) * 100
+                + second) * 1_000 + millis;
+    }
+
+    private static void appendDigits(StringBuilder target, long value, int width) {
+        final int start = target.length();
+        target.setLength(start + width);
+        for (int i = start + width - 1; i >= start; i--) {
+            target.setCharAt(i, (char) ('0' + value % 10));
+            value /= 10;
+        }
+    }
+
+    private static void putDigits(ByteBuffer target, long value, int width) {
+        final int start = target.position();
+        for (int i = start + width - 1; i >= start; i--) {
+            target.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        target.position(start + width);
+    }
 }
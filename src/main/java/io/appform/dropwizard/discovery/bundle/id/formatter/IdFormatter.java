@@ -2,11 +2,53 @@ package io.appform.dropwizard.discovery.bundle.id.formatter;
 
 import org.joda.time.DateTime;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 public interface IdFormatter {
 
     String format(final DateTime dateTime,
                   final int nodeId,
                   final int randomNonce);
 
+    /**
+     * Append the formatted id to the target instead of returning a new string.
+     * The default implementation delegates to {@link #format(DateTime, int, int)}.
+     */
+    default void formatTo(final StringBuilder target,
+                          final long epochMillis,
+                          final int nodeId,
+                          final int randomNonce) {
+        target.append(format(new DateTime(epochMillis), nodeId, randomNonce));
+    }
+
+    /**
+     * Append the formatted id to the target instead of returning a new string.
+     */
+    default void formatTo(final Appendable target,
+                          final long epochMillis,
+                          final int nodeId,
+                          final int randomNonce) throws IOException {
+        if (target instanceof StringBuilder) {
+            formatTo((StringBuilder) target, epochMillis, nodeId, randomNonce);
+            return;
+        }
+        final StringBuilder formatted = new StringBuilder(32);
+        formatTo(formatted, epochMillis, nodeId, randomNonce);
+        target.append(formatted);
+    }
 
+    /**
+     * Write the formatted id as ASCII bytes at the current position of the target.
+     */
+    default void formatTo(final ByteBuffer target,
+                          final long epochMillis,
+                          final int nodeId,
+                          final int randomNonce) {
+        final StringBuilder formatted = new StringBuilder(32);
+        formatTo(formatted, epochMillis, nodeId, randomNonce);
+        for (int i = 0; i < formatted.length(); i++) {
+            target.put((byte) formatted.charAt(i));
+        }
+    }
 }
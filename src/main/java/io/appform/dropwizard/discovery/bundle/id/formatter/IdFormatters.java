@@ -1,5 +1,6 @@
 package io.appform.dropwizard.discovery.bundle.id.formatter;
 
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -7,6 +8,10 @@ public class IdFormatters {
 
     private static final IdFormatter originalIdFormatter = new DefaultIdFormatter();
     private static final IdFormatter base36IdFormatter = new Base36IdFormatter(originalIdFormatter);
+    private static final IdFormatter crockfordBase32IdFormatter = new CrockfordBase32IdFormatter();
+    private static final IdFormatter uuidV7IdFormatter = new UuidV7IdFormatter();
+    private static final CheckDigitIdFormatter checkDigitIdFormatter
+            = new CheckDigitIdFormatter(originalIdFormatter, IdParsers.NUMERIC_LENGTH);
 
     public static IdFormatter original() {
         return originalIdFormatter;
@@ -16,4 +21,23 @@ public class IdFormatters {
         return base36IdFormatter;
     }
 
+    public static IdFormatter crockfordBase32() {
+        return crockfordBase32IdFormatter;
+    }
+
+    public static IdFormatter uuidV7() {
+        return uuidV7IdFormatter;
+    }
+
+    /**
+     * The original format followed by a check character
+     */
+    public static CheckDigitIdFormatter checkDigit() {
+        return checkDigitIdFormatter;
+    }
+
+    public static CompactIdFormatter compact(long epochMillis) {
+        return new CompactIdFormatter(epochMillis);
+    }
+
 }
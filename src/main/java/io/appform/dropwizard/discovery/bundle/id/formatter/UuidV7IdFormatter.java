@@ -0,0 +1,41 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import io.appform.dropwizard.discovery.bundle.id.UuidIds;
+import org.joda.time.DateTime;
+
+/**
+ * Formats ids as canonical version 7 UUID strings, see {@link UuidIds} for the layout.
+ * Use {@link UuidIds#parse(String)} to read them back.
+ */
+public class UuidV7IdFormatter implements IdFormatter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public String format(final DateTime dateTime,
+                         final int nodeId,
+                         final int randomNonce) {
+        return UuidIds.toUuid(dateTime.getMillis(), nodeId, randomNonce).toString();
+    }
+
+    @Override
+    public void formatTo(final StringBuilder target,
+                         final long epochMillis,
+                         final int nodeId,
+                         final int randomNonce) {
+        final long msb = UuidIds.mostSignificantBits(epochMillis, randomNonce);
+        final long lsb = UuidIds.leastSignificantBits(nodeId);
+        appendHex(target, msb >>> 32, 8).append('-');
+        appendHex(target, msb >>> 16, 4).append('-');
+        appendHex(target, msb, 4).append('-');
+        appendHex(target, lsb >>> 48, 4).append('-');
+        appendHex(target, lsb, 12);
+    }
+
+    private static StringBuilder appendHex(StringBuilder target, long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            target.append(HEX[(int) ((value >>> shift) & 0xF)]);
+        }
+        return target;
+    }
+}
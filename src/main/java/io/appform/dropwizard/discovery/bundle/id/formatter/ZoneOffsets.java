@@ -0,0 +1,64 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import lombok.AllArgsConstructor;
+import lombok.experimental.UtilityClass;
+import org.joda.time.DateTimeZone;
+
+/**
+ * The single source of the timezone ids are formatted and parsed in. This is the default joda timezone, the one the
+ * joda based {@link DefaultIdFormatter#format} and {@code IdGenerator.parse} paths use, so the fast paths can't
+ * drift from them. The zone is read on every call, so changes to the joda default are picked up. Offsets are cached
+ * up to the next zone transition.
+ */
+@UtilityClass
+public class ZoneOffsets {
+    private static volatile OffsetWindow window = new OffsetWindow(null, 0, 0, 0);
+
+    /**
+     * @return The zone ids are formatted and parsed in
+     */
+    public static DateTimeZone zone() {
+        return DateTimeZone.getDefault();
+    }
+
+    /**
+     * @param epochMillis Instant
+     * @return Offset of {@link #zone()} at the given instant
+     */
+    public static long offsetMillis(long epochMillis) {
+        final DateTimeZone zone = zone();
+        var current = window;
+        if (current.zone != zone || epochMillis < current.from || epochMillis >= current.until) {
+            current = OffsetWindow.of(zone, epochMillis);
+            window = current;
+        }
+        return current.offsetMillis;
+    }
+
+    /**
+     * @param zone       Zone, as returned by {@link #zone()}
+     * @param localMillis Local time as millis since 1970-01-01T00:00 in the zone
+     * @return Offset of the zone at the given local time. Local times repeated at a transition resolve to the earlier
+     * instant, same as joda parsing.
+     */
+    public static long offsetFromLocalMillis(DateTimeZone zone, long localMillis) {
+        return zone.getOffsetFromLocal(localMillis);
+    }
+
+    @AllArgsConstructor
+    private static final class OffsetWindow {
+        private final DateTimeZone zone;
+        private final long from;
+        private final long until;
+        private final long offsetMillis;
+
+        static OffsetWindow of(DateTimeZone zone, long epochMillis) {
+            final long offset = zone.getOffset(epochMillis);
+            if (zone.isFixed()) {
+                return new OffsetWindow(zone, Long.MIN_VALUE, Long.MAX_VALUE, offset);
+            }
+            final long next = zone.nextTransition(epochMillis);
+            return new OffsetWindow(zone, epochMillis, next > epochMillis ? next : Long.MAX_VALUE, offset);
+        }
+    }
+}
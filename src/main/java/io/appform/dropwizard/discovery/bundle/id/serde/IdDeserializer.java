@@ -0,0 +1,79 @@
+package io.appform.dropwizard.discovery.bundle.id.serde;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Reads an {@link Id} from its id string using the parser of the id format in use, {@link IdParsers#parse(String)}
+ * by default. Strings the parser can't read are kept as ids holding just the string, so ids of any format survive a
+ * round trip. Ids written as beans before {@link IdModule} existed
+ * ({@code {"id":"...","generatedDate":...,"node":...,"exponent":...}}) are still accepted: the {@code id} field is
+ * parsed, and if it is not in a parseable format the remaining bean fields are used as is.
+ */
+public class IdDeserializer extends StdDeserializer<Id> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Function<String, Optional<Id>> parser;
+
+    public IdDeserializer() {
+        this(IdParsers::parse);
+    }
+
+    /**
+     * @param parser Parser for the id format in use
+     */
+    public IdDeserializer(@NonNull Function<String, Optional<Id>> parser) {
+        super(Id.class);
+        this.parser = parser;
+    }
+
+    @Override
+    public Id deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.START_OBJECT || p.currentToken() == JsonToken.FIELD_NAME) {
+            return deserializeLegacy(ctxt.readTree(p), ctxt);
+        }
+        if (p.currentToken() != JsonToken.VALUE_STRING) {
+            return (Id) ctxt.handleUnexpectedToken(Id.class, p);
+        }
+        return parse(p.getText());
+    }
+
+    private Id deserializeLegacy(JsonNode bean, DeserializationContext ctxt) throws IOException {
+        final JsonNode id = bean.get("id");
+        if (null == id || !id.isTextual()) {
+            return (Id) ctxt.handleWeirdStringValue(Id.class, bean.toString(), "Id bean without an id field");
+        }
+        final Optional<Id> parsed = parser.apply(id.textValue());
+        if (parsed.isPresent()) {
+            return parsed.get();
+        }
+        final JsonNode generatedDate = bean.get("generatedDate");
+        if (null == generatedDate || !generatedDate.canConvertToLong()) {
+            return opaque(id.textValue());
+        }
+        return new Id(id.textValue(),
+                      new Date(generatedDate.longValue()),
+                      bean.path("node").asInt(),
+                      bean.path("exponent").asInt());
+    }
+
+    private Id parse(String text) {
+        return parser.apply(text)
+                .orElseGet(() -> opaque(text));
+    }
+
+    static Id opaque(String text) {
+        return new Id(text, null, 0, 0);
+    }
+}
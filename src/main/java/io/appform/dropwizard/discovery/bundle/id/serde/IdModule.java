@@ -0,0 +1,37 @@
+package io.appform.dropwizard.discovery.bundle.id.serde;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Jackson module that (de)serializes {@link Id} as its bare id string instead of a bean.
+ * Registered on the environment object mapper by the bundle when
+ * {@code ServiceDiscoveryConfiguration#serializeIdsAsStrings} is set. Applications using an id format other than the
+ * default one can register it themselves with the parser for their format, e.g.
+ * {@code new IdModule(IdFormatters.checkDigit()::parse)}.
+ * <p>
+ * This changes the wire format: an {@link Id} used to be written as
+ * {@code {"id":"...","generatedDate":...,"node":...,"exponent":...}} and is now written as {@code "..."}. Readers
+ * accept both forms, but consumers that don't use this module must be updated before producers start writing the new
+ * form.
+ */
+public class IdModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    public IdModule() {
+        this(IdParsers::parse);
+    }
+
+    /**
+     * @param parser Parser for the id format in use
+     */
+    public IdModule(Function<String, Optional<Id>> parser) {
+        super(IdModule.class.getSimpleName());
+        addSerializer(Id.class, new IdSerializer());
+        addDeserializer(Id.class, new IdDeserializer(parser));
+    }
+}
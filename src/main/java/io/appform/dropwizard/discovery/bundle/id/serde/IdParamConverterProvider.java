@@ -0,0 +1,60 @@
+package io.appform.dropwizard.discovery.bundle.id.serde;
+
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import lombok.NonNull;
+
+import javax.ws.rs.ext.ParamConverter;
+import javax.ws.rs.ext.ParamConverterProvider;
+import javax.ws.rs.ext.Provider;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Lets resources take {@link Id} as a path, query or header param. Params are read with the parser of the id format in
+ * use, {@link IdParsers#parse(String)} by default. Params the parser can't read are passed on as ids holding just the
+ * string, so resources taking ids of other formats keep working.
+ */
+@Provider
+public class IdParamConverterProvider implements ParamConverterProvider {
+    private final ParamConverter<Id> converter;
+
+    public IdParamConverterProvider() {
+        this(IdParsers::parse);
+    }
+
+    /**
+     * @param parser Parser for the id format in use
+     */
+    public IdParamConverterProvider(@NonNull Function<String, Optional<Id>> parser) {
+        this.converter = new ParamConverter<Id>() {
+            @Override
+            public Id fromString(String value) {
+                if (null == value) {
+                    throw new IllegalArgumentException("Id can't be null");
+                }
+                return parser.apply(value)
+                        .orElseGet(() -> IdDeserializer.opaque(value));
+            }
+
+            @Override
+            public String toString(Id value) {
+                if (null == value) {
+                    throw new IllegalArgumentException("Id can't be null");
+                }
+                return value.getId();
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ParamConverter<T> getConverter(Class<T> rawType, Type genericType, Annotation[] annotations) {
+        if (rawType != Id.class) {
+            return null;
+        }
+        return (ParamConverter<T>) converter;
+    }
+}
@@ -0,0 +1,29 @@
+package io.appform.dropwizard.discovery.bundle.id.serde;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link Id} as its bare id string
+ */
+public class IdSerializer extends StdSerializer<Id> {
+    private static final long serialVersionUID = 1L;
+
+    public IdSerializer() {
+        super(Id.class);
+    }
+
+    @Override
+    public void serialize(Id value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        final String id = value.getId();
+        if (null == id) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeString(id);
+    }
+}
@@ -0,0 +1,61 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import io.dropwizard.cli.Command;
+import io.dropwizard.setup.Bootstrap;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Scans a newline delimited file of ids for duplicates and prints every duplicate as a json line to stdout.
+ * Seen ids are kept off heap, taking between 12 and 23 bytes per expected id. Make sure -XX:MaxDirectMemorySize allows for it.
+ */
+@Slf4j
+public class DuplicateIdCommand extends Command {
+
+    public DuplicateIdCommand() {
+        super("find-duplicate-ids", "Find ids with the same prefix, time, node and exponent in a newline delimited file");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        subparser.addArgument("file")
+                .required(true)
+                .help("Newline delimited file of ids");
+        subparser.addArgument("--expected-ids")
+                .dest("expectedIds")
+                .type(Long.class)
+                .help("Upper bound on the number of ids in the file. Derived from the file size if not provided.");
+    }
+
+    @Override
+    public void run(Bootstrap<?> bootstrap, Namespace namespace) throws Exception {
+        val path = Paths.get(namespace.getString("file"));
+        val providedExpectedIds = namespace.getLong("expectedIds");
+        //Every parseable id takes at least the numeric part and a newline
+        val expectedIds = null != providedExpectedIds
+                          ? providedExpectedIds.longValue()
+                          : Files.size(path) / (IdParsers.NUMERIC_LENGTH + 1) + 1;
+        val writer = bootstrap.getObjectMapper().writer();
+        val finder = new DuplicateIdFinder(expectedIds, duplicate -> {
+            try {
+                System.out.println(writer.writeValueAsString(duplicate));
+            }
+            catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        val start = System.nanoTime();
+        new IdFileScanner(path).scan(finder);
+        log.info("Checked {} ids from {} in {} ms. Duplicates: {} Unparseable: {}",
+                 finder.getTotal(), path, (System.nanoTime() - start) / 1_000_000,
+                 finder.getDuplicates(), finder.getUnparseable());
+    }
+}
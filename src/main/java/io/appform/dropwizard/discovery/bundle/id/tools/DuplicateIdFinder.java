@@ -0,0 +1,138 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import io.appform.dropwizard.discovery.bundle.id.PackedIds;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Finds ids that share prefix, time, node and exponent, which is what a collision would look like. Every id is packed
+ * into a long as described in {@link PackedIds}, mixed with a 64 bit hash of its prefix and kept in an
+ * {@link OffHeapLongSet}, so heap usage stays flat no matter how many ids are streamed through. Ids with different
+ * prefixes are only reported as duplicates if their keys collide, which for distinct prefixes has a chance of about
+ * one in 2^64 per pair. Not thread safe.
+ */
+@Slf4j
+public class DuplicateIdFinder implements LineConsumer {
+    private static final long PROGRESS_INTERVAL = 10_000_000L;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final OffHeapLongSet seen;
+    private final Consumer<DuplicateId> duplicateHandler;
+    private final long startNanos = System.nanoTime();
+    @Getter
+    private long total;
+    @Getter
+    private long unparseable;
+    @Getter
+    private long duplicates;
+
+    public DuplicateIdFinder(long expectedIds, Consumer<DuplicateId> duplicateHandler) {
+        this.seen = new OffHeapLongSet(expectedIds);
+        this.duplicateHandler = duplicateHandler;
+    }
+
+    @Override
+    public void accept(ByteBuffer buffer, int from, int to) {
+        final long packed = IdParsers.parsePacked(buffer, from, to);
+        if (!offerPacked(packed, packed ^ prefixHash(buffer, from, to - IdParsers.NUMERIC_LENGTH))) {
+            final byte[] raw = new byte[to - from];
+            final ByteBuffer view = buffer.duplicate();
+            view.position(from);
+            view.get(raw);
+            duplicateHandler.accept(DuplicateId.of(new String(raw, StandardCharsets.UTF_8), packed));
+        }
+    }
+
+    /**
+     * @param id Id to check
+     * @return false if the id is a duplicate of one seen earlier
+     */
+    public boolean offer(CharSequence id) {
+        final long packed = IdParsers.parsePacked(id);
+        if (!offerPacked(packed, packed ^ prefixHash(id, id.length() - IdParsers.NUMERIC_LENGTH))) {
+            duplicateHandler.accept(DuplicateId.of(id.toString(), packed));
+            return false;
+        }
+        return true;
+    }
+
+    private boolean offerPacked(long packed, long key) {
+        if (++total % PROGRESS_INTERVAL == 0) {
+            final double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+            log.info("Checked {} ids, {} duplicates so far, {} ids/sec",
+                     total, duplicates, (long) (total / Math.max(elapsedSeconds, 1e-9)));
+        }
+        if (packed == IdParsers.INVALID) {
+            unparseable++;
+            return true;
+        }
+        if (seen.add(key)) {
+            return true;
+        }
+        duplicates++;
+        return false;
+    }
+
+    private static long prefixHash(ByteBuffer buffer, int from, int to) {
+        if (to <= from) {
+            return 0L;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xff)) * FNV_PRIME;
+        }
+        return finish(hash);
+    }
+
+    private static long prefixHash(CharSequence id, int to) {
+        if (to <= 0) {
+            return 0L;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < to; i++) {
+            final char c = id.charAt(i);
+            if (c >= 0x80) {
+                //Hash the utf-8 bytes, same as the file scanning path sees them
+                final byte[] bytes = id.subSequence(0, to).toString().getBytes(StandardCharsets.UTF_8);
+                return prefixHash(ByteBuffer.wrap(bytes), 0, bytes.length);
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        return finish(hash);
+    }
+
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * An id that was seen more than once
+     */
+    @Value
+    public static class DuplicateId {
+        String id;
+        int node;
+        int exponent;
+        Instant generatedAt;
+
+        static DuplicateId of(String id, long packed) {
+            return new DuplicateId(id,
+                                   PackedIds.node(packed),
+                                   PackedIds.nonce(packed),
+                                   Instant.ofEpochMilli(PackedIds.time(packed)));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import io.dropwizard.cli.Command;
+import io.dropwizard.setup.Bootstrap;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reports which nodes generated the ids in a newline delimited file and when. The file is memory mapped and
+ * parsed in parallel chunks. Prints a json report with per node and per second counts to stdout.
+ */
+@Slf4j
+public class IdAnalyticsCommand extends Command {
+
+    public IdAnalyticsCommand() {
+        super("analyze-ids", "Report per node and per second counts for a newline delimited file of ids");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        subparser.addArgument("file")
+                .required(true)
+                .help("Newline delimited file of ids");
+        subparser.addArgument("--threads")
+                .dest("threads")
+                .type(Integer.class)
+                .setDefault(Runtime.getRuntime().availableProcessors())
+                .help("Number of threads to parse with");
+        subparser.addArgument("--chunk-size-mb")
+                .dest("chunkSizeMb")
+                .type(Integer.class)
+                .setDefault(IdFileScanner.DEFAULT_CHUNK_SIZE >> 20)
+                .help("Size of file chunks handed to each parser");
+    }
+
+    @Override
+    public void run(Bootstrap<?> bootstrap, Namespace namespace) throws Exception {
+        val path = Paths.get(namespace.getString("file"));
+        val scanner = new IdFileScanner(path, namespace.getInt("chunkSizeMb") << 20);
+        val pool = new ForkJoinPool(namespace.getInt("threads"));
+        try {
+            val start = System.nanoTime();
+            val stats = analyze(scanner, pool);
+            val elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Analyzed {} ids from {} in {} ms", stats.getTotal(), path, elapsedMs);
+            val report = new LinkedHashMap<String, Object>();
+            report.put("total", stats.getTotal());
+            report.put("unparseable", stats.getUnparseable());
+            report.put("nodes", stats.perNode());
+            report.put("seconds", stats.perSecond());
+            System.out.println(bootstrap.getObjectMapper()
+                                       .writerWithDefaultPrettyPrinter()
+                                       .writeValueAsString(report));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    public static IdStats analyze(IdFileScanner scanner, ForkJoinPool pool) throws Exception {
+        return scanner.scan(pool, IdStats::new)
+                .stream()
+                .reduce(new IdStats(), IdStats::merge);
+    }
+}
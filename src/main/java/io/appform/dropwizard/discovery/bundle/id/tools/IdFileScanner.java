@@ -0,0 +1,158 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import com.google.common.base.Preconditions;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Reads newline delimited id files through memory mapped chunks. Chunks are split on line boundaries so that
+ * every line is seen by exactly one {@link LineConsumer}. Blank lines are skipped and CR LF endings are handled.
+ */
+@Slf4j
+public class IdFileScanner {
+    public static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+    public static final int MAX_CHUNK_SIZE = 1 << 30;
+
+    private final Path path;
+    private final int chunkSize;
+
+    public IdFileScanner(Path path) {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    public IdFileScanner(Path path, int chunkSize) {
+        Preconditions.checkArgument(chunkSize > 0 && chunkSize <= MAX_CHUNK_SIZE,
+                                    "Chunk size must be between 1 byte and 1GB");
+        this.path = path;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Scan all chunks in parallel on the given pool, with a fresh consumer per chunk
+     *
+     * @param pool            Pool to parse on
+     * @param consumerFactory Creates a consumer for every chunk
+     * @param <T>             Consumer type
+     * @return Consumers for all chunks in file order, for the caller to merge
+     */
+    public <T extends LineConsumer> List<T> scan(ForkJoinPool pool, Supplier<T> consumerFactory)
+            throws IOException, InterruptedException {
+        try (val channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            val boundaries = chunkBoundaries(channel);
+            val tasks = new ArrayList<Callable<T>>(boundaries.size() - 1);
+            for (int i = 0; i < boundaries.size() - 1; i++) {
+                val start = boundaries.get(i);
+                val end = boundaries.get(i + 1);
+                tasks.add(() -> {
+                    val consumer = consumerFactory.get();
+                    scanChunk(channel, start, end, consumer);
+                    return consumer;
+                });
+            }
+            val results = new ArrayList<T>(tasks.size());
+            for (val future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (ExecutionException e) {
+            val cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IllegalStateException("Error scanning " + path, cause);
+        }
+    }
+
+    /**
+     * Scan all chunks in file order on the calling thread with a single consumer
+     *
+     * @param consumer Consumer for all lines
+     */
+    public void scan(LineConsumer consumer) throws IOException {
+        try (val channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            val boundaries = chunkBoundaries(channel);
+            for (int i = 0; i < boundaries.size() - 1; i++) {
+                scanChunk(channel, boundaries.get(i), boundaries.get(i + 1), consumer);
+            }
+        }
+    }
+
+    private List<Long> chunkBoundaries(FileChannel channel) throws IOException {
+        val size = channel.size();
+        val boundaries = new ArrayList<Long>();
+        boundaries.add(0L);
+        var position = 0L;
+        val probe = ByteBuffer.allocate(4096);
+        while (size - position > chunkSize) {
+            position = nextLineStart(channel, position + chunkSize, size, probe);
+            boundaries.add(position);
+        }
+        if (position < size) {
+            boundaries.add(size);
+        }
+        return boundaries;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe)
+            throws IOException {
+        var position = from;
+        while (position < size) {
+            probe.clear();
+            val read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static void scanChunk(FileChannel channel, long start, long end, LineConsumer consumer) {
+        final ByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final int limit = buffer.limit();
+        int lineStart = 0;
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                emit(buffer, lineStart, i, consumer);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < limit) {
+            emit(buffer, lineStart, limit, consumer);
+        }
+    }
+
+    private static void emit(ByteBuffer buffer, int from, int to, LineConsumer consumer) {
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        if (to > from) {
+            consumer.accept(buffer, from, to);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import io.appform.dropwizard.discovery.bundle.id.Constants;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import io.appform.dropwizard.discovery.bundle.id.PackedIds;
+import lombok.Getter;
+import lombok.val;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts ids per node and per second of generation, along with ids that could not be parsed.
+ * Not thread safe, use one instance per chunk and {@link #merge(IdStats)} the results.
+ */
+public class IdStats implements LineConsumer {
+    @Getter
+    private long total;
+    @Getter
+    private long unparseable;
+    private final long[] nodeCounts = new long[Constants.MAX_NUM_NODES];
+    private final Map<Long, long[]> secondCounts = new HashMap<>();
+    private long lastSecond = Long.MIN_VALUE;
+    private long[] lastSecondCount;
+
+    @Override
+    public void accept(ByteBuffer buffer, int from, int to) {
+        total++;
+        final long packed = IdParsers.parsePacked(buffer, from, to);
+        if (packed == IdParsers.INVALID) {
+            unparseable++;
+            return;
+        }
+        nodeCounts[PackedIds.node(packed)]++;
+        //Ids in a file are usually clustered in time, so avoid a map lookup while the second stays the same
+        final long second = Math.floorDiv(PackedIds.time(packed), 1000L);
+        if (second != lastSecond) {
+            lastSecond = second;
+            lastSecondCount = secondCounts.computeIfAbsent(second, key -> new long[1]);
+        }
+        lastSecondCount[0]++;
+    }
+
+    public IdStats merge(IdStats other) {
+        total += other.total;
+        unparseable += other.unparseable;
+        for (int i = 0; i < nodeCounts.length; i++) {
+            nodeCounts[i] += other.nodeCounts[i];
+        }
+        other.secondCounts.forEach((second, count) -> secondCounts.computeIfAbsent(second, key -> new long[1])[0]
+                += count[0]);
+        lastSecond = Long.MIN_VALUE;
+        return this;
+    }
+
+    /**
+     * @return Non zero counts keyed by node id
+     */
+    public Map<Integer, Long> perNode() {
+        val counts = new LinkedHashMap<Integer, Long>();
+        for (int i = 0; i < nodeCounts.length; i++) {
+            if (nodeCounts[i] != 0) {
+                counts.put(i, nodeCounts[i]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return Counts keyed by second of generation, in time order
+     */
+    public Map<Instant, Long> perSecond() {
+        val counts = new TreeMap<Instant, Long>();
+        secondCounts.forEach((second, count) -> counts.put(Instant.ofEpochSecond(second), count[0]));
+        return counts;
+    }
+}
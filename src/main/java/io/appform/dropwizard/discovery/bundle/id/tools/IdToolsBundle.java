@@ -0,0 +1,19 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import io.dropwizard.Configuration;
+import io.dropwizard.ConfiguredBundle;
+import io.dropwizard.setup.Bootstrap;
+
+/**
+ * Registers the offline id tooling commands ({@code analyze-ids} and {@code find-duplicate-ids}). These are not
+ * added by {@link io.appform.dropwizard.discovery.bundle.ServiceDiscoveryBundle}; applications that want them add
+ * this bundle to their bootstrap explicitly.
+ */
+public class IdToolsBundle implements ConfiguredBundle<Configuration> {
+
+    @Override
+    public void initialize(Bootstrap<?> bootstrap) {
+        bootstrap.addCommand(new IdAnalyticsCommand());
+        bootstrap.addCommand(new DuplicateIdCommand());
+    }
+}
@@ -0,0 +1,16 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receives lines of an id file as byte ranges of a mapped buffer
+ */
+@FunctionalInterface
+public interface LineConsumer {
+    /**
+     * @param buffer Buffer holding the line. Only valid for the duration of the call.
+     * @param from   Index of the first byte of the line
+     * @param to     Index after the last byte of the line, excluding line terminators
+     */
+    void accept(ByteBuffer buffer, int from, int to);
+}
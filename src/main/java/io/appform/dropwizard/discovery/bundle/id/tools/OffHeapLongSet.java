@@ -0,0 +1,105 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open addressing hash set of longs stored outside the java heap, for sets that are too large to box.
+ * Storage is split into direct buffers of up to 1GB each and sized once from the expected number of entries.
+ * Zero marks empty slots in the table and is tracked separately. Not thread safe.
+ */
+public class OffHeapLongSet {
+    private static final int DEFAULT_SEGMENT_BITS = 27;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+    private static final long EMPTY = 0L;
+
+    private final ByteBuffer[] segments;
+    private final int segmentBits;
+    private final long segmentMask;
+    private final long mask;
+    @Getter
+    private final long capacity;
+    private final long maxSize;
+    @Getter
+    private long size;
+    private boolean containsEmpty;
+
+    public OffHeapLongSet(long expectedSize) {
+        this(expectedSize, DEFAULT_SEGMENT_BITS);
+    }
+
+    OffHeapLongSet(long expectedSize, int segmentBits) {
+        Preconditions.checkArgument(expectedSize > 0, "Expected size must be positive");
+        this.capacity = Long.highestOneBit(Math.max(2L, (long) Math.ceil(expectedSize / MAX_LOAD_FACTOR)) - 1) << 1;
+        this.segmentBits = (int) Math.min(segmentBits, Long.numberOfTrailingZeros(capacity));
+        this.segmentMask = (1L << this.segmentBits) - 1;
+        this.mask = capacity - 1;
+        this.maxSize = (long) (capacity * MAX_LOAD_FACTOR);
+        this.segments = new ByteBuffer[(int) (capacity >>> this.segmentBits)];
+        for (int i = 0; i < segments.length; i++) {
+            //Direct buffers are zeroed, so every slot starts out empty
+            segments[i] = ByteBuffer.allocateDirect((int) ((segmentMask + 1) * Long.BYTES));
+        }
+    }
+
+    /**
+     * @param value Value to add
+     * @return true if the value was added, false if it was already present
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        var slot = mix(value) & mask;
+        while (true) {
+            final var segment = segments[(int) (slot >>> segmentBits)];
+            final var offset = (int) (slot & segmentMask) * Long.BYTES;
+            final var current = segment.getLong(offset);
+            if (current == value) {
+                return false;
+            }
+            if (current == EMPTY) {
+                if (size >= maxSize) {
+                    throw new IllegalStateException("Set is full, create it with a larger expected size");
+                }
+                segment.putLong(offset, value);
+                size++;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        var slot = mix(value) & mask;
+        while (true) {
+            final var current = segments[(int) (slot >>> segmentBits)].getLong((int) (slot & segmentMask) * Long.BYTES);
+            if (current == value) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
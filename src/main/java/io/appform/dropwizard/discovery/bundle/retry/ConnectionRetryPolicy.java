@@ -0,0 +1,17 @@
+package io.appform.dropwizard.discovery.bundle.retry;
+
+/**
+ * How curator retries zookeeper operations that failed on connection loss
+ */
+public enum ConnectionRetryPolicy {
+    /**
+     * Retry forever at a fixed interval of {@code connectionRetryIntervalMillis}
+     */
+    FIXED,
+    /**
+     * Retry forever with exponentially growing, fully jittered sleeps, starting at
+     * {@code connectionRetryIntervalMillis} and capped at {@code connectionRetryMaxIntervalMillis}.
+     * See {@link JitteredExponentialBackoffRetry}
+     */
+    EXPONENTIAL_JITTER
+}
@@ -0,0 +1,50 @@
+package io.appform.dropwizard.discovery.bundle.retry;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.curator.RetryPolicy;
+import org.apache.curator.RetrySleeper;
+
+/**
+ * Retries forever, sleeping for a random time between zero and an exponentially growing ceiling that is capped at a
+ * maximum. With fixed intervals all processes that lost the ensemble at the same time keep retrying in lockstep. The
+ * random sleeps spread the retries of a fleet out over the whole window instead.
+ */
+@Slf4j
+public class JitteredExponentialBackoffRetry implements RetryPolicy {
+    private static final int MAX_SHIFT = 30;
+
+    private final int baseSleepMs;
+    private final int maxSleepMs;
+
+    public JitteredExponentialBackoffRetry(int baseSleepMs, int maxSleepMs) {
+        Preconditions.checkArgument(baseSleepMs > 0, "Base sleep time must be positive");
+        Preconditions.checkArgument(maxSleepMs >= baseSleepMs, "Max sleep time must not be less than base sleep time");
+        this.baseSleepMs = baseSleepMs;
+        this.maxSleepMs = maxSleepMs;
+    }
+
+    @Override
+    public boolean allowRetry(int retryCount, long elapsedTimeMs, RetrySleeper sleeper) {
+        try {
+            sleeper.sleepFor(sleepTimeMs(retryCount), TimeUnit.MILLISECONDS);
+            return true;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting to retry. Retry count: {}, elapsed: {} ms", retryCount, elapsedTimeMs);
+            return false;
+        }
+    }
+
+    /**
+     * Sleep time before the given retry, between zero and the ceiling for the retry
+     */
+    long sleepTimeMs(int retryCount) {
+        val ceiling = Math.min(maxSleepMs, (long) baseSleepMs << Math.min(Math.max(retryCount, 0), MAX_SHIFT));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,65 @@
+package io.appform.dropwizard.discovery.bundle.retry;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.curator.utils.ZookeeperFactory;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooKeeper;
+
+/**
+ * Caps how often a process establishes new zookeeper sessions. Curator asks the factory for a new handle, and with it
+ * a new session, on startup and whenever the previous session has expired. The first session is created right away.
+ * After that sessions are at least the configured interval apart, plus a random part of the interval, so that a fleet
+ * whose sessions all expired together does not come back at the same instant.
+ * <p>
+ * The wait is a plain sleep on the thread that asks for the handle, which is curator's connection handling thread, so
+ * nothing else gets through to zookeeper from this client in the meantime. To keep that short of the session timeout,
+ * a single wait never exceeds a quarter of the session timeout, whatever the configured interval.
+ */
+@Slf4j
+public class RateLimitedZookeeperFactory implements ZookeeperFactory {
+    private static final int MAX_WAIT_SESSION_TIMEOUT_DIVISOR = 4;
+
+    private final ZookeeperFactory delegate;
+    private final long minIntervalNanos;
+    private long nextAllowed;
+    private boolean first = true;
+
+    public RateLimitedZookeeperFactory(@NonNull ZookeeperFactory delegate, long minIntervalMs) {
+        Preconditions.checkArgument(minIntervalMs > 0, "Session establishment interval must be positive");
+        this.delegate = delegate;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMs);
+    }
+
+    @Override
+    public ZooKeeper newZooKeeper(
+            String connectString,
+            int sessionTimeout,
+            Watcher watcher,
+            boolean canBeReadOnly) throws Exception {
+        val maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(sessionTimeout) / MAX_WAIT_SESSION_TIMEOUT_DIVISOR;
+        val waitNanos = reserveSlot(maxWaitNanos);
+        if (waitNanos > 0) {
+            log.info("Waiting {} ms before establishing a new zookeeper session", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return delegate.newZooKeeper(connectString, sessionTimeout, watcher, canBeReadOnly);
+    }
+
+    private synchronized long reserveSlot(long maxWaitNanos) {
+        val now = System.nanoTime();
+        if (first) {
+            first = false;
+            nextAllowed = now + minIntervalNanos;
+            return 0;
+        }
+        val slot = Math.min(Math.max(now, nextAllowed) + ThreadLocalRandom.current().nextLong(minIntervalNanos),
+                            now + maxWaitNanos);
+        nextAllowed = slot + minIntervalNanos;
+        return slot - now;
+    }
+}
@@ -0,0 +1,107 @@
+package io.appform.dropwizard.discovery.bundle.util;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Resolves host names concurrently, each lookup bounded by a timeout. Lookups for all hosts can be started together
+ * with {@link #prefetch(Collection)}, so a slow resolver costs the slowest lookup once instead of the sum of all of
+ * them. Successful lookups are cached for the lifetime of the resolver, failed ones are retried on the next call.
+ */
+@Slf4j
+public class HostAddressResolver {
+    private static final ExecutorService LOOKUPS = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("host-address-resolver-%d")
+                    .setDaemon(true)
+                    .build());
+
+    private final Duration timeout;
+    private final Timer lookupTimer;
+    private final Map<String, CompletableFuture<InetAddress>> lookups = new ConcurrentHashMap<>();
+
+    public HostAddressResolver(@NonNull Duration timeout, @NonNull MetricRegistry metricRegistry) {
+        Preconditions.checkArgument(!timeout.isNegative() && !timeout.isZero(), "Timeout must be positive");
+        this.timeout = timeout;
+        this.lookupTimer = metricRegistry.timer(MetricRegistry.name(HostAddressResolver.class, "lookups"));
+    }
+
+    /**
+     * Start lookups for the given hosts in the background, if not already resolved or in flight
+     */
+    public void prefetch(Collection<String> hosts) {
+        hosts.forEach(this::lookup);
+    }
+
+    /**
+     * Resolve a host, waiting for a lookup already in flight if there is one
+     *
+     * @throws UnknownHostException if the host could not be resolved within the timeout
+     */
+    public InetAddress resolve(String host) throws UnknownHostException {
+        val lookup = lookup(host);
+        try {
+            return lookup.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure(host, lookup, "Interrupted while resolving " + host, e);
+        }
+        catch (ExecutionException e) {
+            val cause = e.getCause() instanceof CompletionException && null != e.getCause().getCause()
+                        ? e.getCause().getCause()
+                        : e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw failure(host, lookup,
+                              String.format("Timed out resolving %s after %d ms", host, timeout.toMillis()), cause);
+            }
+            if (cause instanceof UnknownHostException) {
+                lookups.remove(host, lookup);
+                throw (UnknownHostException) cause;
+            }
+            throw failure(host, lookup, "Error resolving " + host, cause);
+        }
+    }
+
+    private CompletableFuture<InetAddress> lookup(String host) {
+        return lookups.computeIfAbsent(host, name -> CompletableFuture
+                .supplyAsync(() -> {
+                    try (Timer.Context ignored = lookupTimer.time()) {
+                        return InetAddress.getByName(name);
+                    }
+                    catch (UnknownHostException e) {
+                        throw new CompletionException(e);
+                    }
+                }, LOOKUPS)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private UnknownHostException failure(
+            String host,
+            CompletableFuture<InetAddress> lookup,
+            String message,
+            Throwable cause) {
+        lookups.remove(host, lookup);
+        val exception = new UnknownHostException(message);
+        exception.initCause(cause);
+        return exception;
+    }
+}
@@ -0,0 +1,114 @@
+package io.appform.dropwizard.discovery.bundle.util;
+
+import com.codahale.metrics.MetricRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Runs the phases of a lifecycle transition, some of them concurrently, and records how long each one took.
+ * Durations are published as timers named {@code <owner>.<transition>.<phase>} and {@code <owner>.<transition>.total},
+ * and the whole timeline is logged once the transition is over.
+ */
+@Slf4j
+public class LifecycleTimeline {
+    private final String transition;
+    private final Class<?> owner;
+    private final MetricRegistry metricRegistry;
+    private final Executor executor;
+    private final long start = System.nanoTime();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    public LifecycleTimeline(
+            @NonNull String transition,
+            @NonNull Class<?> owner,
+            @NonNull MetricRegistry metricRegistry,
+            @NonNull Executor executor) {
+        this.transition = transition;
+        this.owner = owner;
+        this.metricRegistry = metricRegistry;
+        this.executor = executor;
+    }
+
+    /**
+     * Run a phase on the calling thread
+     */
+    public void run(String phase, Runnable action) {
+        val phaseStart = System.nanoTime();
+        try {
+            action.run();
+        }
+        finally {
+            record(phase, System.nanoTime() - phaseStart);
+        }
+    }
+
+    /**
+     * Start a phase on the executor, to be waited on with {@link #await(CompletableFuture[])}
+     */
+    public CompletableFuture<Void> runAsync(String phase, Runnable action) {
+        return CompletableFuture.runAsync(() -> run(phase, action), executor);
+    }
+
+    /**
+     * Record the time till the given future completes, measured from the start of the timeline. Used for work that
+     * carries on in the background past the end of the transition.
+     */
+    public void track(String phase, CompletableFuture<?> future) {
+        future.whenComplete((result, error) -> {
+            val elapsed = System.nanoTime() - start;
+            record(phase, elapsed);
+            log.info("{} phase {} completed {} ms after {} began",
+                     owner.getSimpleName(), phase, TimeUnit.NANOSECONDS.toMillis(elapsed), transition);
+        });
+    }
+
+    /**
+     * Wait for all given phases to finish. Failure of any phase is rethrown.
+     */
+    public void await(CompletableFuture<?>... phases) {
+        try {
+            CompletableFuture.allOf(phases).join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Mark the end of the transition
+     *
+     * @return Total time taken in nanoseconds
+     */
+    public long finish() {
+        val total = System.nanoTime() - start;
+        metricRegistry.timer(MetricRegistry.name(owner, transition, "total")).update(total, TimeUnit.NANOSECONDS);
+        final String phases;
+        synchronized (durations) {
+            phases = durations.entrySet()
+                    .stream()
+                    .map(entry -> entry.getKey() + "=" + TimeUnit.NANOSECONDS.toMillis(entry.getValue()) + "ms")
+                    .collect(Collectors.joining(", "));
+        }
+        log.info("{} {} took {} ms [{}]",
+                 owner.getSimpleName(), transition, TimeUnit.NANOSECONDS.toMillis(total), phases);
+        return total;
+    }
+
+    private void record(String phase, long elapsedNanos) {
+        metricRegistry.timer(MetricRegistry.name(owner, transition, phase)).update(elapsedNanos, TimeUnit.NANOSECONDS);
+        synchronized (durations) {
+            durations.put(phase, elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.appform.dropwizard.discovery.bundle.util;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.net.InetAddresses;
+import io.appform.dropwizard.discovery.bundle.Constants;
+import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.model.ServiceNode;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Client side helper to get the address to connect to for a discovered node. Nodes published with
+ * {@code publishResolvedAddress} carry the address of their host in node data, which is used without a DNS lookup.
+ * The parsed address is remembered per node and only worked out again when the node data changes. Entries of nodes
+ * that are not looked up for a while are dropped, so departed nodes don't pile up. Nodes without a published address
+ * fall back to resolving the host name.
+ */
+@Slf4j
+public class NodeAddressResolver {
+    private static final int DEFAULT_MAX_NODES = 10_000;
+    private static final Duration DEFAULT_EXPIRY = Duration.ofMinutes(10);
+
+    private final Cache<String, CachedAddress> addresses;
+
+    public NodeAddressResolver() {
+        this(DEFAULT_MAX_NODES, DEFAULT_EXPIRY);
+    }
+
+    /**
+     * @param maxNodes Maximum number of nodes to remember addresses for
+     * @param expiry   Time after which the address of a node that has not been looked up is dropped
+     */
+    public NodeAddressResolver(int maxNodes, @NonNull Duration expiry) {
+        this.addresses = CacheBuilder.newBuilder()
+                .maximumSize(maxNodes)
+                .expireAfterAccess(expiry)
+                .build();
+    }
+
+    /**
+     * Get the address to connect to for a node
+     *
+     * @return Address carrying the node host name, so it can still be used for TLS host verification
+     * @throws UnknownHostException if the node has no published address and its host name could not be resolved
+     */
+    public InetAddress resolve(ServiceNode<ShardInfo> node) throws UnknownHostException {
+        val key = node.getHost() + ":" + node.getPort();
+        val cached = addresses.getIfPresent(key);
+        if (null != cached && Objects.equals(cached.getNodeData(), node.getNodeData())) {
+            return cached.getAddress();
+        }
+        val published = publishedAddress(node.getNodeData());
+        if (published.isEmpty()) {
+            addresses.invalidate(key);
+            return InetAddress.getByName(node.getHost());
+        }
+        val address = InetAddress.getByAddress(node.getHost(), published.get().getAddress());
+        addresses.put(key, new CachedAddress(node.getNodeData(), address));
+        return address;
+    }
+
+    @VisibleForTesting
+    long size() {
+        addresses.cleanUp();
+        return addresses.size();
+    }
+
+    /**
+     * Read the published address from node data, if there is a valid one
+     */
+    public static Optional<InetAddress> publishedAddress(ShardInfo nodeData) {
+        if (null == nodeData || null == nodeData.getTags()) {
+            return Optional.empty();
+        }
+        for (String tag : nodeData.getTags()) {
+            if (tag.startsWith(Constants.ADDRESS_TAG_PREFIX)) {
+                val literal = tag.substring(Constants.ADDRESS_TAG_PREFIX.length());
+                if (InetAddresses.isInetAddress(literal)) {
+                    return Optional.of(InetAddresses.forString(literal));
+                }
+                log.warn("Ignoring invalid published address {}", literal);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Value
+    private static class CachedAddress {
+        ShardInfo nodeData;
+        InetAddress address;
+    }
+}
@@ -64,7 +64,7 @@ class ServiceDiscoveryBundleDwMonitorTest {
 
     private final HealthCheckRegistry healthChecks = new HealthCheckRegistry();
     private final JerseyEnvironment jerseyEnvironment = mock(JerseyEnvironment.class);
-    private final MetricRegistry metricRegistry = mock(MetricRegistry.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
     private final LifecycleEnvironment lifecycleEnvironment = new LifecycleEnvironment(metricRegistry);
     private final Environment environment = mock(Environment.class);
     private final Bootstrap<?> bootstrap = mock(Bootstrap.class);
@@ -119,6 +119,7 @@ class ServiceDiscoveryBundleDwMonitorTest {
         when(environment.lifecycle()).thenReturn(lifecycleEnvironment);
         when(environment.healthChecks()).thenReturn(healthChecks);
         when(environment.getObjectMapper()).thenReturn(new ObjectMapper());
+        when(environment.metrics()).thenReturn(metricRegistry);
         AdminEnvironment adminEnvironment = mock(AdminEnvironment.class);
         doNothing().when(adminEnvironment)
                 .addTask(any());
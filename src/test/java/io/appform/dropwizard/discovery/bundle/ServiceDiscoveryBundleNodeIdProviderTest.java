@@ -0,0 +1,109 @@
+package io.appform.dropwizard.discovery.bundle;
+
+import static org.mockito.Mockito.mock;
+
+import com.codahale.metrics.MetricRegistry;
+import dev.failsafe.Failsafe;
+import io.appform.dropwizard.discovery.bundle.id.FileLockNodeIdProvider;
+import io.appform.dropwizard.discovery.bundle.id.NodeIdManager;
+import io.appform.dropwizard.discovery.bundle.id.NodeIdProvider;
+import io.appform.dropwizard.discovery.bundle.id.NodeIdProviderType;
+import io.appform.dropwizard.discovery.bundle.id.StaticNodeIdProvider;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the choice of node id provider in {@link ServiceDiscoveryBundle}
+ */
+class ServiceDiscoveryBundleNodeIdProviderTest {
+
+    private final CuratorFramework curator = mock(CuratorFramework.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testZookeeperIsDefault() {
+        val configuration = ServiceDiscoveryConfiguration.builder()
+                .build();
+        Assertions.assertEquals(NodeIdProviderType.ZOOKEEPER, configuration.getNodeIdProvider());
+        Assertions.assertTrue(create(configuration) instanceof NodeIdManager);
+    }
+
+    @Test
+    void testStatic() {
+        try (NodeIdProvider provider = create(ServiceDiscoveryConfiguration.builder()
+                                                      .nodeIdProvider(NodeIdProviderType.STATIC)
+                                                      .nodeId(42)
+                                                      .build())) {
+            Assertions.assertTrue(provider instanceof StaticNodeIdProvider);
+            Assertions.assertEquals(42, provider.acquire());
+        }
+        Assertions.assertThrows(NullPointerException.class,
+                                () -> create(ServiceDiscoveryConfiguration.builder()
+                                                     .nodeIdProvider(NodeIdProviderType.STATIC)
+                                                     .build()));
+    }
+
+    @Test
+    void testFileLockUsesConfiguredRange() {
+        try (NodeIdProvider provider = create(ServiceDiscoveryConfiguration.builder()
+                                                      .nodeIdProvider(NodeIdProviderType.FILE_LOCK)
+                                                      .nodeIdLockDirectory(directory.toString())
+                                                      .nodeIdRangeStart(500)
+                                                      .nodeIdRangeSize(10)
+                                                      .build())) {
+            Assertions.assertTrue(provider instanceof FileLockNodeIdProvider);
+            Assertions.assertEquals(500, provider.acquire());
+        }
+    }
+
+    @Test
+    void testFileLockNeedsDirectoryAndRange() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> create(ServiceDiscoveryConfiguration.builder()
+                                                     .nodeIdProvider(NodeIdProviderType.FILE_LOCK)
+                                                     .nodeIdRangeStart(0)
+                                                     .nodeIdRangeSize(10)
+                                                     .build()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> create(ServiceDiscoveryConfiguration.builder()
+                                                     .nodeIdProvider(NodeIdProviderType.FILE_LOCK)
+                                                     .nodeIdLockDirectory(directory.toString())
+                                                     .build()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> create(ServiceDiscoveryConfiguration.builder()
+                                                     .nodeIdProvider(NodeIdProviderType.FILE_LOCK)
+                                                     .nodeIdLockDirectory(directory.toString())
+                                                     .nodeIdRangeStart(9_995)
+                                                     .nodeIdRangeSize(10)
+                                                     .build()));
+    }
+
+    @Test
+    void testNodeIdRetriesStopAtTimeout() {
+        val attempts = new AtomicInteger();
+        val start = System.nanoTime();
+        val error = Assertions.assertThrows(IllegalStateException.class,
+                                            () -> Failsafe.with(ServiceDiscoveryBundle.nodeIdRetryPolicy(
+                                                            Duration.ofSeconds(2)))
+                                                    .get(() -> {
+                                                        attempts.incrementAndGet();
+                                                        throw new IllegalStateException("Misconfigured");
+                                                    }));
+        Assertions.assertEquals("Misconfigured", error.getMessage());
+        Assertions.assertTrue(attempts.get() > 1);
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(10)) < 0);
+    }
+
+    private NodeIdProvider create(ServiceDiscoveryConfiguration configuration) {
+        return ServiceDiscoveryBundle.createNodeIdProvider(configuration, curator, "test", metricRegistry);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2019 Santanu Sinha <santanu.sinha@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.appform.dropwizard.discovery.bundle;
+
+import static io.appform.dropwizard.discovery.bundle.TestUtils.assertNodeAbsence;
+import static io.appform.dropwizard.discovery.bundle.TestUtils.assertNodePresence;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alibaba.dcm.DnsCacheManipulator;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.NodeIdProvider;
+import io.appform.dropwizard.discovery.bundle.util.ConfigurationUtils;
+import io.dropwizard.Configuration;
+import io.dropwizard.jersey.DropwizardResourceConfig;
+import io.dropwizard.jersey.setup.JerseyEnvironment;
+import io.dropwizard.jetty.ConnectorFactory;
+import io.dropwizard.jetty.HttpConnectorFactory;
+import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
+import io.dropwizard.server.DefaultServerFactory;
+import io.dropwizard.setup.AdminEnvironment;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import org.apache.curator.test.TestingCluster;
+import org.awaitility.Awaitility;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Node stays out of rotation till a node id has been acquired, with failed acquisitions retried in the background
+ */
+class ServiceDiscoveryBundleNodeIdTest {
+
+    private final HealthCheckRegistry healthChecks = mock(HealthCheckRegistry.class);
+    private final JerseyEnvironment jerseyEnvironment = mock(JerseyEnvironment.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final LifecycleEnvironment lifecycleEnvironment = new LifecycleEnvironment(metricRegistry);
+    private final Environment environment = mock(Environment.class);
+    private final Bootstrap<?> bootstrap = mock(Bootstrap.class);
+    private final Configuration configuration = mock(Configuration.class);
+    private final DefaultServerFactory serverFactory = mock(DefaultServerFactory.class);
+    private final ConnectorFactory connectorFactory = mock(HttpConnectorFactory.class);
+    private final TestingCluster testingCluster = new TestingCluster(1);
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ServiceDiscoveryConfiguration serviceDiscoveryConfiguration;
+    private final ServiceDiscoveryBundle<Configuration> bundle = new ServiceDiscoveryBundle<Configuration>() {
+        @Override
+        protected ServiceDiscoveryConfiguration getRangerConfiguration(Configuration configuration) {
+            return serviceDiscoveryConfiguration;
+        }
+
+        @Override
+        protected String getServiceName(Configuration configuration) {
+            return "TestService";
+        }
+
+        @Override
+        protected NodeIdProvider createNodeIdProvider(String serviceName, MetricRegistry metricRegistry) {
+            return () -> {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new IllegalStateException("No node id available");
+                }
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                return 42;
+            };
+        }
+    };
+
+    @BeforeEach
+    void setup() throws Exception {
+        when(serverFactory.getApplicationConnectors()).thenReturn(Lists.newArrayList(connectorFactory));
+        when(configuration.getServerFactory()).thenReturn(serverFactory);
+        when(jerseyEnvironment.getResourceConfig()).thenReturn(new DropwizardResourceConfig());
+        when(environment.jersey()).thenReturn(jerseyEnvironment);
+        when(environment.lifecycle()).thenReturn(lifecycleEnvironment);
+        when(environment.healthChecks()).thenReturn(healthChecks);
+        when(environment.getObjectMapper()).thenReturn(new ObjectMapper());
+        when(environment.metrics()).thenReturn(metricRegistry);
+        AdminEnvironment adminEnvironment = mock(AdminEnvironment.class);
+        doNothing().when(adminEnvironment)
+                .addTask(any());
+        when(environment.admin()).thenReturn(adminEnvironment);
+
+        testingCluster.start();
+
+        serviceDiscoveryConfiguration = ServiceDiscoveryConfiguration.builder()
+                .zookeeper(testingCluster.getConnectString())
+                .namespace("test")
+                .environment("testing")
+                .connectionRetryIntervalMillis(5000)
+                .publishedHost("TestHost")
+                .publishedPort(8021)
+                .initialRotationStatus(true)
+                .build();
+
+        DnsCacheManipulator.setDnsCache("TestHost", "127.0.0.1");
+        ConfigurationUtils.resolveZookeeperHosts(serviceDiscoveryConfiguration.getZookeeper())
+                .forEach(zkHost -> DnsCacheManipulator.setDnsCache(zkHost, "127.0.0.1"));
+        bundle.initialize(bootstrap);
+        bundle.run(configuration, environment);
+        bundle.getServerStatus()
+                .markStarted();
+        for (LifeCycle lifeCycle : lifecycleEnvironment.getManagedObjects()) {
+            lifeCycle.start();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        for (LifeCycle lifeCycle : lifecycleEnvironment.getManagedObjects()) {
+            lifeCycle.stop();
+        }
+        testingCluster.stop();
+    }
+
+    @Test
+    void testUnhealthyTillNodeIdAcquired() {
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(30))
+                .until(() -> attempts.get() >= 3);
+        assertNodeAbsence(bundle);
+
+        release.countDown();
+        assertNodePresence(bundle);
+        Assertions.assertEquals(42, IdGenerator.generate("X").getNode());
+        Assertions.assertEquals(3, attempts.get());
+    }
+}
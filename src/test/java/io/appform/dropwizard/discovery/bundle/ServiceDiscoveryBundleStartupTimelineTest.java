@@ -0,0 +1,157 @@
+package io.appform.dropwizard.discovery.bundle;
+
+import static io.appform.dropwizard.discovery.bundle.TestUtils.assertNodePresence;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alibaba.dcm.DnsCacheManipulator;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import io.appform.dropwizard.discovery.bundle.util.ConfigurationUtils;
+import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import io.dropwizard.Configuration;
+import io.dropwizard.jersey.DropwizardResourceConfig;
+import io.dropwizard.jersey.setup.JerseyEnvironment;
+import io.dropwizard.jetty.ConnectorFactory;
+import io.dropwizard.jetty.HttpConnectorFactory;
+import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
+import io.dropwizard.server.DefaultServerFactory;
+import io.dropwizard.setup.AdminEnvironment;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.curator.test.TestingServer;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the independent startup phases run concurrently. Zookeeper comes up only after the bundle has started,
+ * so that the provider and the client both spend most of their startup waiting for it.
+ */
+@Slf4j
+class ServiceDiscoveryBundleStartupTimelineTest {
+    private static final long ZK_START_DELAY_MS = 3_000;
+    private static final long OVERLAP_MARGIN_MS = 1_000;
+
+    private final HealthCheckRegistry healthChecks = mock(HealthCheckRegistry.class);
+    private final JerseyEnvironment jerseyEnvironment = mock(JerseyEnvironment.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final LifecycleEnvironment lifecycleEnvironment = new LifecycleEnvironment(metricRegistry);
+    private final Environment environment = mock(Environment.class);
+    private final Bootstrap<?> bootstrap = mock(Bootstrap.class);
+    private final Configuration configuration = mock(Configuration.class);
+    private final DefaultServerFactory serverFactory = mock(DefaultServerFactory.class);
+    private final ConnectorFactory connectorFactory = mock(HttpConnectorFactory.class);
+    private TestingServer testingServer;
+    private ServiceDiscoveryConfiguration serviceDiscoveryConfiguration;
+    private final ServiceDiscoveryBundle<Configuration> bundle = new ServiceDiscoveryBundle<Configuration>() {
+        @Override
+        protected ServiceDiscoveryConfiguration getRangerConfiguration(Configuration configuration) {
+            return serviceDiscoveryConfiguration;
+        }
+
+        @Override
+        protected String getServiceName(Configuration configuration) {
+            return "TestService";
+        }
+    };
+
+    @BeforeEach
+    void setup() throws Exception {
+        when(serverFactory.getApplicationConnectors()).thenReturn(Lists.newArrayList(connectorFactory));
+        when(configuration.getServerFactory()).thenReturn(serverFactory);
+        when(jerseyEnvironment.getResourceConfig()).thenReturn(new DropwizardResourceConfig());
+        when(environment.jersey()).thenReturn(jerseyEnvironment);
+        when(environment.lifecycle()).thenReturn(lifecycleEnvironment);
+        when(environment.healthChecks()).thenReturn(healthChecks);
+        when(environment.getObjectMapper()).thenReturn(new ObjectMapper());
+        when(environment.metrics()).thenReturn(metricRegistry);
+        AdminEnvironment adminEnvironment = mock(AdminEnvironment.class);
+        doNothing().when(adminEnvironment)
+                .addTask(any());
+        when(environment.admin()).thenReturn(adminEnvironment);
+
+        testingServer = new TestingServer(false);
+
+        serviceDiscoveryConfiguration = ServiceDiscoveryConfiguration.builder()
+                .zookeeper(testingServer.getConnectString())
+                .namespace("test")
+                .environment("testing")
+                .connectionRetryIntervalMillis(5000)
+                .publishedHost("TestHost")
+                .publishedPort(8021)
+                .initialRotationStatus(true)
+                .build();
+
+        DnsCacheManipulator.setDnsCache("TestHost", "127.0.0.1");
+        ConfigurationUtils.resolveZookeeperHosts(serviceDiscoveryConfiguration.getZookeeper())
+                .forEach(zkHost -> DnsCacheManipulator.setDnsCache(zkHost, "127.0.0.1"));
+
+        bundle.initialize(bootstrap);
+        bundle.run(configuration, environment);
+        bundle.getServerStatus()
+                .markStarted();
+        bundle.registerHealthcheck(() -> HealthcheckStatus.healthy);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (LifeCycle lifeCycle : lifecycleEnvironment.getManagedObjects()) {
+            lifeCycle.stop();
+        }
+        testingServer.close();
+    }
+
+    @Test
+    void testStartupPhasesRunConcurrently() throws Exception {
+        val zkStarted = CompletableFuture.runAsync(this::startZookeeperLate);
+        for (LifeCycle lifeCycle : lifecycleEnvironment.getManagedObjects()) {
+            lifeCycle.start();
+        }
+        zkStarted.join();
+        assertNodePresence(bundle);
+
+        val providerMs = phaseMillis("startup", "serviceProvider");
+        val clientMs = phaseMillis("startup", "discoveryClient");
+        val curatorMs = phaseMillis("startup", "curator");
+        val totalMs = phaseMillis("startup", "total");
+        log.info("Startup took {} ms. Provider: {} ms, client: {} ms, curator: {} ms",
+                 totalMs, providerMs, clientMs, curatorMs);
+        Assertions.assertTrue(Math.min(providerMs, clientMs) >= ZK_START_DELAY_MS / 2,
+                              "Both phases should have been waiting for zookeeper");
+        Assertions.assertTrue(totalMs >= Math.max(providerMs, clientMs));
+        Assertions.assertTrue(totalMs < providerMs + clientMs - OVERLAP_MARGIN_MS,
+                              "Provider and client startup should overlap");
+
+        for (LifeCycle lifeCycle : lifecycleEnvironment.getManagedObjects()) {
+            lifeCycle.stop();
+        }
+        val shutdownMs = phaseMillis("shutdown", "total");
+        Assertions.assertTrue(shutdownMs >= Math.max(phaseMillis("shutdown", "serviceProvider"),
+                                                     phaseMillis("shutdown", "discoveryClient")));
+    }
+
+    @SneakyThrows
+    private void startZookeeperLate() {
+        Thread.sleep(ZK_START_DELAY_MS);
+        testingServer.start();
+    }
+
+    private long phaseMillis(String transition, String phase) {
+        val timer = metricRegistry.getTimers().get(MetricRegistry.name(ServiceDiscoveryBundle.class, transition, phase));
+        Assertions.assertNotNull(timer, "No timing recorded for " + transition + "." + phase);
+        Assertions.assertEquals(1, timer.getCount());
+        return TimeUnit.NANOSECONDS.toMillis(timer.getSnapshot().getMax());
+    }
+}
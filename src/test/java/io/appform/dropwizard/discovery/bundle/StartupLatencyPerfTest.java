@@ -0,0 +1,282 @@
+package io.appform.dropwizard.discovery.bundle;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.dropwizard.discovery.bundle.selectors.HierarchicalEnvironmentAwareShardSelector;
+import io.appform.ranger.client.RangerClient;
+import io.appform.ranger.client.zk.SimpleRangerZKClient;
+import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.model.ServiceNode;
+import io.dropwizard.Application;
+import io.dropwizard.Configuration;
+import io.dropwizard.jetty.HttpConnectorFactory;
+import io.dropwizard.server.DefaultServerFactory;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
+import io.dropwizard.testing.DropwizardTestSupport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryForever;
+import org.apache.curator.test.TestingServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures how long a service takes from {@link ServiceDiscoveryBundle#run} until it can be discovered, for a minimal
+ * Dropwizard app against a local zookeeper. For each configuration permutation two intervals are recorded:
+ * registration latency, till the node shows up in zookeeper, and discovery latency, till a separate
+ * {@link RangerClient} returns it as healthy. Results are written to perf/results along with the JMH results.
+ */
+@Slf4j
+@Tag("perf")
+class StartupLatencyPerfTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String NAMESPACE = "bench";
+    private static final String ENVIRONMENT = "testing";
+    private static final int WARMUP_ITERATIONS = 1;
+    private static final int MEASUREMENT_ITERATIONS = 3;
+    private static final long POLL_INTERVAL_MS = 5;
+    private static final long TIMEOUT_MS = 60_000;
+
+    private static final List<Permutation> PERMUTATIONS = List.of(
+            new Permutation(0, 1000, 1),
+            new Permutation(0, 1000, 5),
+            new Permutation(0, 3000, 1),
+            new Permutation(0, 3000, 5),
+            new Permutation(2, 1000, 1),
+            new Permutation(2, 1000, 5),
+            new Permutation(2, 3000, 1),
+            new Permutation(2, 3000, 5));
+
+    @Test
+    void testStartupLatency() throws Exception {
+        try (TestingServer testingServer = new TestingServer(true)) {
+            int run = 0;
+            for (val permutation : PERMUTATIONS) {
+                val registrations = new ArrayList<Long>();
+                val discoveries = new ArrayList<Long>();
+                for (int i = 0; i < WARMUP_ITERATIONS + MEASUREMENT_ITERATIONS; i++) {
+                    val measurement = measure(testingServer, permutation, "bench-service-" + run++);
+                    if (i >= WARMUP_ITERATIONS) {
+                        registrations.add(measurement.getRegistrationMs());
+                        discoveries.add(measurement.getDiscoveryMs());
+                    }
+                }
+                log.info("{}: registration {} ms, discovery {} ms", permutation.name(), registrations, discoveries);
+                writeResult(permutation, registrations, discoveries);
+            }
+        }
+    }
+
+    private Measurement measure(TestingServer testingServer, Permutation permutation, String serviceName)
+            throws Exception {
+        val discoveryConfiguration = ServiceDiscoveryConfiguration.builder()
+                .zookeeper(testingServer.getConnectString())
+                .namespace(NAMESPACE)
+                .environment(ENVIRONMENT)
+                .connectionRetryIntervalMillis(1000)
+                .publishedHost("localhost")
+                .publishedPort(8021)
+                .initialDelaySeconds(permutation.getInitialDelaySeconds())
+                .refreshTimeMs(permutation.getRefreshTimeMs())
+                .dropwizardCheckInterval(permutation.getDropwizardCheckInterval())
+                .initialRotationStatus(true)
+                .build();
+        val bundle = new TimedBundle(discoveryConfiguration, serviceName);
+        val support = new DropwizardTestSupport<>(BenchmarkApp.class, benchmarkConfiguration()) {
+            @Override
+            public Application<Configuration> newApplication() {
+                return new BenchmarkApp(bundle);
+            }
+        };
+        val observerCurator = CuratorFrameworkFactory.builder()
+                .connectString(testingServer.getConnectString())
+                .namespace(NAMESPACE)
+                .retryPolicy(new RetryForever(1000))
+                .build();
+        observerCurator.start();
+        val observer = observer(observerCurator, serviceName, permutation.getRefreshTimeMs());
+        observer.start();
+        try {
+            support.before();
+            val registered = awaitNanos(() -> isRegistered(observerCurator, serviceName));
+            val discovered = awaitNanos(() -> observer.getNode().isPresent());
+            return new Measurement(TimeUnit.NANOSECONDS.toMillis(registered - bundle.getRunStarted()),
+                                   TimeUnit.NANOSECONDS.toMillis(discovered - bundle.getRunStarted()));
+        }
+        finally {
+            support.after();
+            observer.stop();
+            observerCurator.close();
+        }
+    }
+
+    private static boolean isRegistered(CuratorFramework curator, String serviceName) {
+        try {
+            val path = "/" + serviceName;
+            return null != curator.checkExists().forPath(path)
+                    && !curator.getChildren().forPath(path).isEmpty();
+        }
+        catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static long awaitNanos(BooleanSupplier condition) throws InterruptedException {
+        val deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Condition not met within " + TIMEOUT_MS + " ms");
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        return System.nanoTime();
+    }
+
+    private static RangerClient<ShardInfo, MapBasedServiceRegistry<ShardInfo>> observer(
+            CuratorFramework curator,
+            String serviceName,
+            int refreshTimeMs) {
+        return SimpleRangerZKClient.<ShardInfo>builder()
+                .curatorFramework(curator)
+                .namespace(NAMESPACE)
+                .serviceName(serviceName)
+                .mapper(mapper)
+                .nodeRefreshIntervalMs(refreshTimeMs)
+                .deserializer(data -> {
+                    try {
+                        return mapper.readValue(data, new TypeReference<ServiceNode<ShardInfo>>() {
+                        });
+                    }
+                    catch (IOException e) {
+                        log.warn("Error parsing node data with value {}", new String(data));
+                    }
+                    return null;
+                })
+                .initialCriteria(shardInfo -> true)
+                .alwaysUseInitialCriteria(false)
+                .shardSelector(new HierarchicalEnvironmentAwareShardSelector(ENVIRONMENT))
+                .build();
+    }
+
+    private static Configuration benchmarkConfiguration() {
+        val applicationConnector = new HttpConnectorFactory();
+        applicationConnector.setPort(0);
+        val adminConnector = new HttpConnectorFactory();
+        adminConnector.setPort(0);
+        val serverFactory = new DefaultServerFactory();
+        serverFactory.setApplicationConnectors(List.of(applicationConnector));
+        serverFactory.setAdminConnectors(List.of(adminConnector));
+        val configuration = new Configuration();
+        configuration.setServerFactory(serverFactory);
+        return configuration;
+    }
+
+    private static void writeResult(Permutation permutation, List<Long> registrations, List<Long> discoveries)
+            throws IOException {
+        val benchmarkName = String.format("%s.%s", StartupLatencyPerfTest.class.getName(), permutation.name());
+        val outputFilePath = Paths.get(String.format("perf/results/%s.json", benchmarkName));
+        val outputNode = mapper.createObjectNode();
+        outputNode.put("name", benchmarkName);
+        outputNode.put("mode", "SingleShotTime");
+        outputNode.put("iterations", MEASUREMENT_ITERATIONS);
+        outputNode.put("initial_delay_seconds", permutation.getInitialDelaySeconds());
+        outputNode.put("refresh_time_ms", permutation.getRefreshTimeMs());
+        outputNode.put("dropwizard_check_interval_seconds", permutation.getDropwizardCheckInterval());
+        outputNode.put("registration_mean_ms", mean(registrations));
+        outputNode.put("registration_max_ms", max(registrations));
+        outputNode.put("discovery_mean_ms", mean(discoveries));
+        outputNode.put("discovery_max_ms", max(discoveries));
+        Files.createDirectories(outputFilePath.getParent());
+        Files.write(outputFilePath, mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(outputNode));
+    }
+
+    private static double mean(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+
+    private static long max(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    @Value
+    private static class Permutation {
+        long initialDelaySeconds;
+        int refreshTimeMs;
+        int dropwizardCheckInterval;
+
+        String name() {
+            return String.format("delay%ds-refresh%dms-dwcheck%ds",
+                                 initialDelaySeconds, refreshTimeMs, dropwizardCheckInterval);
+        }
+    }
+
+    @Value
+    private static class Measurement {
+        long registrationMs;
+        long discoveryMs;
+    }
+
+    /**
+     * Minimal app with nothing but the discovery bundle
+     */
+    public static class BenchmarkApp extends Application<Configuration> {
+        private final ServiceDiscoveryBundle<Configuration> bundle;
+
+        public BenchmarkApp(ServiceDiscoveryBundle<Configuration> bundle) {
+            this.bundle = bundle;
+        }
+
+        @Override
+        public void initialize(Bootstrap<Configuration> bootstrap) {
+            bootstrap.addBundle(bundle);
+        }
+
+        @Override
+        public void run(Configuration configuration, Environment environment) {
+            //Nothing to do
+        }
+    }
+
+    private static class TimedBundle extends ServiceDiscoveryBundle<Configuration> {
+        private final ServiceDiscoveryConfiguration discoveryConfiguration;
+        private final String serviceName;
+        private volatile long runStarted;
+
+        TimedBundle(ServiceDiscoveryConfiguration discoveryConfiguration, String serviceName) {
+            this.discoveryConfiguration = discoveryConfiguration;
+            this.serviceName = serviceName;
+        }
+
+        @Override
+        public void run(Configuration configuration, Environment environment) throws Exception {
+            runStarted = System.nanoTime();
+            super.run(configuration, environment);
+        }
+
+        @Override
+        protected ServiceDiscoveryConfiguration getRangerConfiguration(Configuration configuration) {
+            return discoveryConfiguration;
+        }
+
+        @Override
+        protected String getServiceName(Configuration configuration) {
+            return serviceName;
+        }
+
+        long getRunStarted() {
+            return runStarted;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.junit.jupiter.api.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cost of getting a generated id into a byte buffer through the binary and the string paths
+ */
+@Tag("perf")
+public class BinaryIdCodecPerfTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        private final BinaryIdCodec codec = BinaryIdCodec.original();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        private Id id;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            IdGenerator.initialize(23);
+            id = IdGenerator.generate("X");
+        }
+    }
+
+    @Benchmark
+    public void testGenerateBinary(Blackhole blackhole, BenchmarkState state) {
+        state.buffer.clear();
+        blackhole.consume(state.codec.generateInto("", state.buffer));
+    }
+
+    @Benchmark
+    public void testGenerateString(Blackhole blackhole, BenchmarkState state) {
+        state.buffer.clear();
+        state.buffer.put(IdGenerator.generate("X").getId().getBytes(StandardCharsets.UTF_8));
+        blackhole.consume(state.buffer);
+    }
+
+    @Benchmark
+    public void testRoundTripBinary(Blackhole blackhole, BenchmarkState state) {
+        state.buffer.clear();
+        state.codec.encode(state.id, state.buffer);
+        state.buffer.flip();
+        blackhole.consume(state.codec.decodePacked(state.buffer));
+    }
+
+    @Benchmark
+    public void testRoundTripString(Blackhole blackhole, BenchmarkState state) {
+        state.buffer.clear();
+        state.buffer.put(state.id.getId().getBytes(StandardCharsets.UTF_8));
+        state.buffer.flip();
+        final byte[] bytes = new byte[state.buffer.remaining()];
+        state.buffer.get(bytes);
+        blackhole.consume(IdGenerator.parse(new String(bytes, StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,87 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatters;
+import lombok.val;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link BinaryIdCodec}
+ */
+class BinaryIdCodecTest {
+
+    @BeforeEach
+    void setUp() {
+        IdGenerator.initialize(23);
+    }
+
+    @Test
+    void testPackedRoundTrip() {
+        val codec = BinaryIdCodec.original();
+        val buffer = ByteBuffer.allocate(BinaryIdCodec.PACKED_SIZE * 100);
+        val ids = new Id[100];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = IdGenerator.generate("");
+            codec.encode(ids[i], buffer);
+        }
+        Assertions.assertEquals(BinaryIdCodec.PACKED_SIZE * 100, buffer.position());
+        buffer.flip();
+        for (Id id : ids) {
+            val bigEndian = buffer.getLong(buffer.position());
+            Assertions.assertEquals(PackedIds.pack(id), bigEndian);
+            Assertions.assertEquals(id, codec.decode(buffer));
+        }
+        Assertions.assertThrows(BufferUnderflowException.class, () -> codec.decode(buffer));
+    }
+
+    @Test
+    void testTaggedRoundTrip() {
+        val codec = new BinaryIdCodec(IdFormatters.original(), List.of("T", "TXN", "ORD"));
+        Assertions.assertEquals(BinaryIdCodec.TAGGED_SIZE, codec.size());
+        val buffer = ByteBuffer.allocate(BinaryIdCodec.TAGGED_SIZE * 3).order(ByteOrder.LITTLE_ENDIAN);
+        val txn = IdGenerator.generate("TXN");
+        val ord = IdGenerator.generate("ORD");
+        codec.encode(txn, buffer);
+        codec.encode(ord, buffer);
+        val generated = codec.generateInto("T", buffer);
+        buffer.flip();
+        Assertions.assertEquals(1, buffer.order(ByteOrder.BIG_ENDIAN).getInt(0));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        Assertions.assertEquals(txn, codec.decode(buffer));
+        Assertions.assertEquals(PackedIds.pack(ord), codec.decodePacked(buffer));
+        val decoded = codec.decode(buffer);
+        Assertions.assertTrue(decoded.getId().startsWith("T"));
+        Assertions.assertEquals(generated, PackedIds.pack(decoded));
+        Assertions.assertEquals(decoded, IdGenerator.parse(decoded.getId()).orElse(null));
+    }
+
+    @Test
+    void testUnknownPrefix() {
+        val codec = new BinaryIdCodec(IdFormatters.original(), List.of("A"));
+        val buffer = ByteBuffer.allocate(BinaryIdCodec.TAGGED_SIZE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.encode(IdGenerator.generate("B"), buffer));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.generateInto("B", buffer));
+        buffer.putInt(0, 5);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer));
+    }
+
+    @Test
+    void testBinaryOrderMatchesGenerationOrder() {
+        val codec = BinaryIdCodec.original();
+        val first = ByteBuffer.allocate(BinaryIdCodec.PACKED_SIZE);
+        val second = ByteBuffer.allocate(BinaryIdCodec.PACKED_SIZE);
+        codec.generateInto("", first);
+        val start = System.currentTimeMillis();
+        Awaitility.await().until(() -> System.currentTimeMillis() > start + 1);
+        codec.generateInto("", second);
+        Assertions.assertTrue(Arrays.compareUnsigned(first.array(), second.array()) < 0);
+    }
+}
@@ -37,4 +37,18 @@ class CollisionCheckerTest {
             Assertions.assertFalse(collisionChecker.check(101, i));
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testClaim() {
+        CollisionChecker collisionChecker = new CollisionChecker();
+        int[] locations = new int[Constants.MAX_ID_PER_MS];
+        Assertions.assertTrue(collisionChecker.check(100, 1));
+        Assertions.assertEquals(10, collisionChecker.claim(100, locations, 10));
+        Assertions.assertEquals(Constants.MAX_ID_PER_MS - 11, collisionChecker.claim(100, locations, locations.length));
+        Assertions.assertEquals(0, collisionChecker.claim(100, locations, locations.length));
+        Assertions.assertFalse(collisionChecker.check(100, 1));
+        Assertions.assertEquals(Constants.MAX_ID_PER_MS, collisionChecker.claim(101, locations, locations.length));
+        Assertions.assertEquals(Constants.MAX_ID_PER_MS,
+                                IntStream.of(locations).distinct().count());
+    }
+}
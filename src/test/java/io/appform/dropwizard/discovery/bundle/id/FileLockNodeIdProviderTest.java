@@ -0,0 +1,56 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests for {@link FileLockNodeIdProvider}
+ */
+class FileLockNodeIdProviderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testProvidersGetDistinctIds() {
+        try (FileLockNodeIdProvider first = new FileLockNodeIdProvider(directory);
+             FileLockNodeIdProvider second = new FileLockNodeIdProvider(directory)) {
+            val firstNode = first.acquire();
+            val secondNode = second.acquire();
+            Assertions.assertNotEquals(firstNode, secondNode);
+            Assertions.assertEquals(firstNode, first.acquire());
+            Assertions.assertTrue(Files.exists(directory.resolve(firstNode + ".lock")));
+        }
+    }
+
+    @Test
+    void testReleasedIdIsReused() {
+        val first = new FileLockNodeIdProvider(directory, 100, 2);
+        val node = first.acquire();
+        Assertions.assertEquals(100, node);
+        first.close();
+        try (FileLockNodeIdProvider second = new FileLockNodeIdProvider(directory, 100, 2)) {
+            Assertions.assertEquals(node, second.acquire());
+        }
+    }
+
+    @Test
+    void testFailsWhenRangeIsExhausted() {
+        try (FileLockNodeIdProvider first = new FileLockNodeIdProvider(directory, 5, 1);
+             FileLockNodeIdProvider second = new FileLockNodeIdProvider(directory, 5, 1)) {
+            Assertions.assertEquals(5, first.acquire());
+            Assertions.assertThrows(IllegalStateException.class, second::acquire);
+        }
+    }
+
+    @Test
+    void testRangeChecks() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new FileLockNodeIdProvider(directory, Constants.MAX_NUM_NODES - 1, 2));
+    }
+}
@@ -17,11 +17,13 @@
 
 package io.appform.dropwizard.discovery.bundle.id;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableList;
 import io.appform.dropwizard.discovery.bundle.id.constraints.IdValidationConstraint;
 import io.appform.dropwizard.discovery.bundle.id.constraints.impl.JavaHashCodeBasedKeyPartitioner;
 import io.appform.dropwizard.discovery.bundle.id.constraints.impl.PartitionValidator;
 import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatters;
+import io.appform.dropwizard.discovery.bundle.id.request.IdGenerationRequest;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -30,13 +32,19 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.*;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -178,6 +186,142 @@ class IdGeneratorTest {
                 false).isPresent());
     }
 
+    @Test
+    void testGenerateAsync() throws Exception {
+        IdGenerator.initialize(23);
+        val id = IdGenerator.generateAsync(IdGenerationRequest.builder()
+                                                   .prefix("TEST")
+                                                   .idFormatter(IdFormatters.original())
+                                                   .build(),
+                                           Duration.ofSeconds(1))
+                .get(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(id.isPresent());
+        Assertions.assertEquals(26, id.get().getId().length());
+    }
+
+    @Test
+    void testGenerateAsyncDeadlineMiss() throws Exception {
+        IdGenerator.initialize(23);
+        val metricRegistry = new MetricRegistry();
+        IdGenerator.registerMetrics(metricRegistry);
+        val id = IdGenerator.generateAsync(IdGenerationRequest.builder()
+                                                   .prefix("TEST")
+                                                   .idFormatter(IdFormatters.original())
+                                                   .constraints(Collections.singletonList(generated -> {
+                                                       try {
+                                                           Thread.sleep(5);
+                                                       }
+                                                       catch (InterruptedException e) {
+                                                           Thread.currentThread().interrupt();
+                                                       }
+                                                       return false;
+                                                   }))
+                                                   .build(),
+                                           Duration.ofMillis(50))
+                .get(5, TimeUnit.SECONDS);
+        Assertions.assertFalse(id.isPresent());
+        Assertions.assertEquals(1, metricRegistry.meter(
+                MetricRegistry.name(IdGenerator.class, "async", "deadlineMisses")).getCount());
+    }
+
+    @Test
+    void testGenerateAsyncDeadlineMissWhileQueued() throws Exception {
+        IdGenerator.initialize(23);
+        val metricRegistry = new MetricRegistry();
+        IdGenerator.registerMetrics(metricRegistry);
+        val release = new CountDownLatch(1);
+        val blockers = new ArrayList<CompletableFuture<Optional<Id>>>();
+        try {
+            //Occupy every executor thread so the next request stays queued past its deadline
+            for (int i = 0; i < Runtime.getRuntime().availableProcessors(); i++) {
+                blockers.add(IdGenerator.generateAsync(IdGenerationRequest.builder()
+                                                               .prefix("BLOCK")
+                                                               .idFormatter(IdFormatters.original())
+                                                               .constraints(Collections.singletonList(generated -> {
+                                                                   try {
+                                                                       return release.await(10, TimeUnit.SECONDS);
+                                                                   }
+                                                                   catch (InterruptedException e) {
+                                                                       Thread.currentThread().interrupt();
+                                                                       return false;
+                                                                   }
+                                                               }))
+                                                               .build(),
+                                                       Duration.ofSeconds(10)));
+            }
+            val start = System.nanoTime();
+            val id = IdGenerator.generateAsync(IdGenerationRequest.builder()
+                                                       .prefix("TEST")
+                                                       .idFormatter(IdFormatters.original())
+                                                       .build(),
+                                               Duration.ofMillis(50))
+                    .get(5, TimeUnit.SECONDS);
+            Assertions.assertFalse(id.isPresent());
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+            Assertions.assertEquals(1, metricRegistry.meter(
+                    MetricRegistry.name(IdGenerator.class, "async", "deadlineMisses")).getCount());
+        }
+        finally {
+            release.countDown();
+        }
+        for (val blocker : blockers) {
+            Assertions.assertTrue(blocker.get(10, TimeUnit.SECONDS).isPresent());
+        }
+    }
+
+    @Test
+    void testGenerateWaitsForNodeId() throws Exception {
+        val node = new CompletableFuture<Integer>();
+        IdGenerator.initializeAsync(node, null, null);
+        try {
+            val generated = CompletableFuture.supplyAsync(() -> IdGenerator.generate("TEST"));
+            Thread.sleep(100);
+            Assertions.assertFalse(generated.isDone());
+            node.complete(42);
+            val id = generated.get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(42, id.getNode());
+            Assertions.assertEquals(42, IdGenerator.generate("TEST").getNode());
+        }
+        finally {
+            IdGenerator.initialize(23);
+        }
+    }
+
+    @Test
+    void testGenerateFailsIfNodeIdAcquisitionFails() {
+        IdGenerator.initializeAsync(CompletableFuture.failedFuture(new IllegalStateException("No node id")),
+                                    null, null);
+        try {
+            Assertions.assertThrows(IllegalStateException.class, () -> IdGenerator.generate("TEST"));
+            Assertions.assertThrows(IllegalStateException.class, IdGenerator::generatePacked);
+        }
+        finally {
+            IdGenerator.initialize(23);
+        }
+        Assertions.assertEquals(23, IdGenerator.generate("TEST").getNode());
+    }
+
+    @Test
+    void testGenerateInto() throws Exception {
+        IdGenerator.initialize(23);
+        val builder = new StringBuilder("{\"id\":\"");
+        val packed = IdGenerator.generateInto("TEST", builder);
+        builder.append("\"}");
+        val idString = builder.substring(7, builder.length() - 2);
+        Assertions.assertEquals(26, idString.length());
+        val parsed = IdGenerator.parse(idString).orElse(null);
+        Assertions.assertNotNull(parsed);
+        Assertions.assertEquals(23, parsed.getNode());
+        Assertions.assertEquals(PackedIds.time(packed), parsed.getGeneratedDate().getTime());
+        Assertions.assertEquals(PackedIds.nonce(packed), parsed.getExponent());
+
+        val buffer = ByteBuffer.allocate(64);
+        IdGenerator.generateInto("TEST", buffer);
+        Assertions.assertEquals(26, buffer.position());
+        Assertions.assertTrue(IdGenerator.parse(new String(buffer.array(), 0, buffer.position(),
+                                                           StandardCharsets.US_ASCII)).isPresent());
+    }
+
     @Test
     void testParseFailure() {
         //Null or Empty String
@@ -0,0 +1,141 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.stream.Collectors;
+
+/**
+ * Test for {@link IdPublisher} and packed id streams
+ */
+class IdPublisherTest {
+
+    @BeforeEach
+    void setup() {
+        IdGenerator.initialize(23);
+    }
+
+    @AfterEach
+    void cleanup() {
+        IdGenerator.cleanUp();
+    }
+
+    @Test
+    void testPublisherHonoursDemand() {
+        val received = new ArrayList<Id>();
+        val subscriber = new CollectingSubscriber(received);
+        IdGenerator.publisher("TEST").subscribe(subscriber);
+        Assertions.assertTrue(received.isEmpty());
+
+        subscriber.subscription.request(10);
+        Assertions.assertEquals(10, received.size());
+
+        subscriber.subscription.request(2500);
+        Assertions.assertEquals(2510, received.size());
+
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        Assertions.assertEquals(2510, received.size());
+
+        Assertions.assertEquals(received.size(),
+                                received.stream().map(Id::getId).collect(Collectors.toSet()).size());
+        received.forEach(id -> {
+            Assertions.assertEquals(26, id.getId().length());
+            Assertions.assertEquals(23, id.getNode());
+        });
+    }
+
+    @Test
+    void testPublisherRejectsNonPositiveDemand() {
+        val subscriber = new CollectingSubscriber(new ArrayList<>());
+        IdGenerator.publisher("TEST").subscribe(subscriber);
+        subscriber.subscription.request(0);
+        Assertions.assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void testPackedIdStream() {
+        val ids = IdGenerator.packedIdStream()
+                .limit(5000)
+                .toArray();
+        val unique = new HashSet<Long>();
+        for (long packed : ids) {
+            Assertions.assertTrue(unique.add(packed));
+            Assertions.assertEquals(23, PackedIds.node(packed));
+            Assertions.assertTrue(PackedIds.nonce(packed) < Constants.MAX_ID_PER_MS);
+        }
+    }
+
+    @Test
+    void testPackRoundTrip() {
+        val id = IdGenerator.generate("TEST");
+        val packed = PackedIds.pack(id);
+        Assertions.assertEquals(id.getGeneratedDate(), PackedIds.generatedDate(packed));
+        Assertions.assertEquals(id.getNode(), PackedIds.node(packed));
+        Assertions.assertEquals(id.getExponent(), PackedIds.nonce(packed));
+    }
+
+    @Test
+    void testBatchesLeaveNoncesForOthers() {
+        val nonceBatch = new NonceBatch(Domain.DEFAULT.getCollisionChecker(), Constants.MAX_ID_PER_MS);
+        val perMs = new HashMap<Long, Integer>();
+        for (int i = 0; i < 3 * NonceBatch.MAX_CLAIMED_PER_MS; i++) {
+            perMs.merge(PackedIds.time(nonceBatch.nextPacked(Long.MAX_VALUE)), 1, Integer::sum);
+        }
+        perMs.values().forEach(count -> Assertions.assertTrue(count <= NonceBatch.MAX_CLAIMED_PER_MS));
+    }
+
+    @Test
+    void testPackRejectsOutOfRangeFields() {
+        val now = System.currentTimeMillis();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PackedIds.pack(now, Constants.MAX_NUM_NODES, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PackedIds.pack(now, -1, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PackedIds.pack(now, 0, Constants.MAX_ID_PER_MS));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PackedIds.pack(now, 0, -1));
+    }
+
+    @Test
+    void testPackedLayoutIsStable() {
+        Assertions.assertEquals(1_420_070_400_000L, PackedIds.EPOCH_MILLIS);
+        val packed = PackedIds.pack(PackedIds.EPOCH_MILLIS + 1, 9999, 999);
+        Assertions.assertEquals((1L << 24) | (9999L << 10) | 999L, packed);
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<Id> {
+        private final List<Id> received;
+        private Flow.Subscription subscription;
+        private Throwable error;
+
+        private CollectingSubscriber(List<Id> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Id item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            //Never completes
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import lombok.val;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests for {@link MonotonicSequence} and monotonic domains
+ */
+class MonotonicSequenceTest {
+
+    private final DateTimeZone defaultZone = DateTimeZone.getDefault();
+
+    @AfterEach
+    void cleanup() {
+        IdGenerator.cleanUp();
+        DateTimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    void testBorrowsNextMillisecondOnOverflow() throws Exception {
+        val clock = new AtomicLong(998L);
+        val sequence = new MonotonicSequence(clock::get, 1);
+        clock.set(1_000L);
+        for (int i = 0; i < Constants.MAX_ID_PER_MS; i++) {
+            val next = sequence.next();
+            Assertions.assertEquals(1_000L, MonotonicSequence.time(next));
+            Assertions.assertEquals(i, MonotonicSequence.sequence(next));
+        }
+        val borrowed = sequence.next();
+        Assertions.assertEquals(1_001L, MonotonicSequence.time(borrowed));
+        Assertions.assertEquals(0, MonotonicSequence.sequence(borrowed));
+        clock.set(1_001L);
+        Assertions.assertEquals(1, MonotonicSequence.sequence(sequence.next()));
+        clock.set(1_005L);
+        val caughtUp = sequence.next();
+        Assertions.assertEquals(1_005L, MonotonicSequence.time(caughtUp));
+        Assertions.assertEquals(0, MonotonicSequence.sequence(caughtUp));
+
+        //Can't borrow more than one millisecond ahead
+        for (int i = 1; i < 2 * Constants.MAX_ID_PER_MS; i++) {
+            sequence.next();
+        }
+        val blocked = CompletableFuture.supplyAsync(sequence::next);
+        Thread.sleep(50);
+        Assertions.assertFalse(blocked.isDone());
+        clock.set(1_006L);
+        val afterWait = blocked.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(1_007L, MonotonicSequence.time(afterWait));
+        Assertions.assertEquals(0, MonotonicSequence.sequence(afterWait));
+    }
+
+    @Test
+    void testWaitsOutBorrowedTimeOnStartup() throws Exception {
+        val clock = new AtomicLong(1_000L);
+        val sequence = new MonotonicSequence(clock::get, MonotonicSequence.MAX_BORROW_MILLIS);
+        val first = CompletableFuture.supplyAsync(sequence::next);
+        Thread.sleep(50);
+        Assertions.assertFalse(first.isDone());
+        clock.set(1_000L + MonotonicSequence.MAX_BORROW_MILLIS);
+        Thread.sleep(50);
+        Assertions.assertFalse(first.isDone());
+        clock.set(1_001L + MonotonicSequence.MAX_BORROW_MILLIS);
+        Assertions.assertEquals(1_001L + MonotonicSequence.MAX_BORROW_MILLIS,
+                                MonotonicSequence.time(first.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void testClockGoingBackwards() {
+        val clock = new AtomicLong(1_999L);
+        val sequence = new MonotonicSequence(clock::get, 0);
+        clock.set(2_000L);
+        val first = sequence.next();
+        clock.set(1_000L);
+        val second = sequence.next();
+        Assertions.assertEquals(2_000L, MonotonicSequence.time(second));
+        Assertions.assertTrue(second > first);
+    }
+
+    @Test
+    void testConcurrentGenerationIsStrictlyIncreasing() throws Exception {
+        //Id strings hold local time and only sort like packed ids while the offset doesn't go back
+        DateTimeZone.setDefault(DateTimeZone.UTC);
+        IdGenerator.initialize(23);
+        IdGenerator.registerDomain(Domain.builder()
+                                           .domain("ordered")
+                                           .constraints(List.of())
+                                           .monotonic(true)
+                                           .build());
+        val threads = 8;
+        val perThread = 50_000;
+        val executor = Executors.newFixedThreadPool(threads);
+        val start = new CountDownLatch(1);
+        try {
+            val futures = new ArrayList<CompletableFuture<List<Id>>>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    awaitQuietly(start);
+                    val ids = new ArrayList<Id>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(IdGenerator.generateWithConstraints("X", "ordered").orElseThrow());
+                    }
+                    return ids;
+                }, executor));
+            }
+            start.countDown();
+            val packed = new HashSet<Long>();
+            for (val future : futures) {
+                val ids = future.get(2, TimeUnit.MINUTES);
+                for (int i = 0; i < ids.size(); i++) {
+                    Assertions.assertTrue(packed.add(PackedIds.pack(ids.get(i))));
+                    if (i > 0) {
+                        val previous = ids.get(i - 1);
+                        val current = ids.get(i);
+                        Assertions.assertTrue(Long.compareUnsigned(PackedIds.pack(previous),
+                                                                   PackedIds.pack(current)) < 0);
+                        Assertions.assertTrue(previous.getId().compareTo(current.getId()) < 0,
+                                              previous.getId() + " >= " + current.getId());
+                    }
+                }
+            }
+            Assertions.assertEquals(threads * perThread, packed.size());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testPublisherUsesSequence() {
+        IdGenerator.initialize(23);
+        IdGenerator.registerDomain(Domain.builder()
+                                           .domain("ordered")
+                                           .constraints(List.of())
+                                           .monotonic(true)
+                                           .build());
+        val ids = new ArrayList<Id>();
+        IdGenerator.publisher("X", "ordered").subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(5_000);
+            }
+
+            @Override
+            public void onNext(Id item) {
+                ids.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assertions.fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                //Never completes
+            }
+        });
+        Assertions.assertEquals(5_000, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            Assertions.assertTrue(ids.get(i - 1).getId().compareTo(ids.get(i).getId()) < 0);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.MetricRegistry;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.retry.RetryOneTime;
+import org.apache.curator.test.TestingServer;
+import org.apache.zookeeper.CreateMode;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link NodeIdLeaseKeeper}
+ */
+class NodeIdLeaseKeeperTest {
+    private final CuratorPathUtils pathUtils = new CuratorPathUtils("test");
+    private final List<CuratorFramework> curators = new ArrayList<>();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private TestingServer testingServer;
+    private CuratorFramework curator;
+    private NodeIdManager nodeIdManager;
+    private NodeIdLeaseKeeper leaseKeeper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        testingServer = new TestingServer(true);
+        curator = curator();
+        nodeIdManager = new NodeIdManager(curator, "test", 8, Duration.ofSeconds(10), metricRegistry);
+        IdGenerator.initialize(nodeIdManager.fixNodeId());
+        leaseKeeper = new NodeIdLeaseKeeper(nodeIdManager, metricRegistry);
+        curator.getConnectionStateListenable().addListener(leaseKeeper);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        leaseKeeper.close();
+        curators.forEach(CuratorFramework::close);
+        testingServer.close();
+        IdGenerator.initialize(0);
+    }
+
+    @Test
+    void testReassertsNodeIdAfterSessionExpiry() throws Exception {
+        val node = nodeIdManager.getNode();
+        val oldSession = curator.getZookeeperClient().getZooKeeper().getSessionId();
+        curator.getZookeeperClient().getZooKeeper().getTestable().injectSessionExpiration();
+        Awaitility.await()
+                .atMost(30, TimeUnit.SECONDS)
+                .until(() -> meterCount("reasserted") >= 1);
+        val stat = curator.checkExists().forPath(pathUtils.path(node));
+        Assertions.assertNotNull(stat);
+        Assertions.assertNotEquals(oldSession, stat.getEphemeralOwner());
+        Assertions.assertEquals(curator.getZookeeperClient().getZooKeeper().getSessionId(), stat.getEphemeralOwner());
+        Assertions.assertTrue(meterCount("lost") >= 1);
+        Assertions.assertEquals(node, IdGenerator.generate("X").getNode());
+    }
+
+    @Test
+    void testRotatesNodeIdWhenTakenByOtherProcess() throws Exception {
+        val node = nodeIdManager.getNode();
+        val other = curator();
+        curator.delete().forPath(pathUtils.path(node));
+        other.create().withMode(CreateMode.EPHEMERAL).forPath(pathUtils.path(node));
+
+        leaseKeeper.stateChanged(curator, ConnectionState.RECONNECTED);
+        Awaitility.await()
+                .atMost(30, TimeUnit.SECONDS)
+                .until(() -> meterCount("rotated") == 1);
+        val rotated = nodeIdManager.getNode();
+        Assertions.assertNotEquals(node, rotated);
+        Assertions.assertNotNull(curator.checkExists().forPath(pathUtils.path(rotated)));
+        Assertions.assertEquals(rotated, IdGenerator.generate("X").getNode());
+    }
+
+    @Test
+    void testRetriesRenewalTillItSucceeds() throws Exception {
+        val manager = mock(NodeIdManager.class);
+        when(manager.getNode()).thenReturn(7);
+        when(manager.reassertNodeId())
+                .thenThrow(new IllegalStateException("Connection loss"))
+                .thenThrow(new IllegalStateException("Connection loss"))
+                .thenReturn(true);
+        val registry = new MetricRegistry();
+        try (NodeIdLeaseKeeper keeper = new NodeIdLeaseKeeper(manager, registry, Duration.ofMillis(100),
+                                                              Duration.ofMillis(200))) {
+            Assertions.assertTrue(keeper.isLeaseHeld());
+            keeper.stateChanged(curator, ConnectionState.LOST);
+            Assertions.assertFalse(keeper.isLeaseHeld());
+            keeper.stateChanged(curator, ConnectionState.RECONNECTED);
+            Awaitility.await()
+                    .atMost(10, TimeUnit.SECONDS)
+                    .until(() -> registry.meter(MetricRegistry.name(NodeIdLeaseKeeper.class, "reasserted"))
+                            .getCount() == 1);
+            Assertions.assertTrue(keeper.isLeaseHeld());
+            Assertions.assertEquals(2, registry.meter(MetricRegistry.name(NodeIdLeaseKeeper.class, "failures"))
+                    .getCount());
+            verify(manager, times(3)).reassertNodeId();
+        }
+    }
+
+    @Test
+    void testIdsKeepFlowingWhileSuspended() {
+        leaseKeeper.stateChanged(curator, ConnectionState.SUSPENDED);
+        Assertions.assertEquals(nodeIdManager.getNode(), IdGenerator.generate("X").getNode());
+        Assertions.assertEquals(1, meterCount("suspended"));
+    }
+
+    private long meterCount(String name) {
+        return metricRegistry.meter(MetricRegistry.name(NodeIdLeaseKeeper.class, name)).getCount();
+    }
+
+    private CuratorFramework curator() {
+        val client = CuratorFrameworkFactory.newClient(testingServer.getConnectString(), new RetryOneTime(100));
+        client.start();
+        curators.add(client);
+        return client;
+    }
+}
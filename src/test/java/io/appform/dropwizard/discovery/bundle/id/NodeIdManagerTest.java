@@ -0,0 +1,176 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import com.codahale.metrics.MetricRegistry;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryOneTime;
+import org.apache.curator.test.TestingServer;
+import org.apache.zookeeper.CreateMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link NodeIdManager}
+ */
+class NodeIdManagerTest {
+    private TestingServer testingServer;
+    private final List<CuratorFramework> curators = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        testingServer = new TestingServer(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        curators.forEach(CuratorFramework::close);
+        testingServer.close();
+    }
+
+    @Test
+    void testAcquiresFreeNodeAndRecordsMetrics() throws Exception {
+        val curator = curator(testingServer.getConnectString());
+        val pathUtils = new CuratorPathUtils("test");
+        for (int i = 0; i < 100; i++) {
+            curator.create()
+                    .creatingParentContainersIfNeeded()
+                    .withMode(CreateMode.EPHEMERAL)
+                    .forPath(pathUtils.path(i));
+        }
+        val metricRegistry = new MetricRegistry();
+        val manager = new NodeIdManager(curator, "test", 4, Duration.ofSeconds(10), metricRegistry);
+        val node = manager.fixNodeId();
+        Assertions.assertTrue(node >= 100 && node < Constants.MAX_NUM_NODES);
+        Assertions.assertEquals(node, manager.getNode());
+        Assertions.assertNotNull(curator.checkExists().forPath(pathUtils.path(node)));
+        Assertions.assertEquals(1, metricRegistry.timer(MetricRegistry.name(NodeIdManager.class, "acquisition"))
+                .getCount());
+        Assertions.assertEquals(1, metricRegistry.histogram(MetricRegistry.name(NodeIdManager.class, "attempts"))
+                .getSnapshot()
+                .getMax());
+    }
+
+    @Test
+    void testConcurrentAcquisitionIsUnique() throws Exception {
+        val executor = Executors.newFixedThreadPool(16);
+        try {
+            val futures = new ArrayList<CompletableFuture<Integer>>();
+            for (int i = 0; i < 64; i++) {
+                val manager = new NodeIdManager(curator(testingServer.getConnectString()), "test");
+                futures.add(CompletableFuture.supplyAsync(manager::fixNodeId, executor));
+            }
+            val nodes = new HashSet<Integer>();
+            for (val future : futures) {
+                Assertions.assertTrue(nodes.add(future.get(1, TimeUnit.MINUTES)));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailsWhenZookeeperIsUnreachable() throws Exception {
+        val connectString = testingServer.getConnectString();
+        testingServer.stop();
+        val manager = new NodeIdManager(curator(connectString), "test", 4, Duration.ofSeconds(1),
+                                        new MetricRegistry());
+        Assertions.assertThrows(IllegalStateException.class, manager::fixNodeId);
+    }
+
+    @Test
+    void testRestartReusesHintedNodeId(@TempDir Path tempDir) throws Exception {
+        val hintFile = tempDir.resolve("node-id.hint");
+        val first = curator(testingServer.getConnectString());
+        val node = hinted(first, hintFile).fixNodeId();
+        Assertions.assertTrue(Files.exists(hintFile));
+        first.close();
+
+        val metricRegistry = new MetricRegistry();
+        val restarted = new NodeIdManager(curator(testingServer.getConnectString()), "test", 4,
+                                          Duration.ofSeconds(10), metricRegistry, hintFile);
+        Assertions.assertEquals(node, restarted.fixNodeId());
+        Assertions.assertEquals(1, metricRegistry.histogram(MetricRegistry.name(NodeIdManager.class, "attempts"))
+                .getSnapshot()
+                .getMax());
+    }
+
+    @Test
+    void testWaitsForPreviousSessionToRelease(@TempDir Path tempDir) throws Exception {
+        val hintFile = tempDir.resolve("node-id.hint");
+        val previous = curator(testingServer.getConnectString());
+        val node = hinted(previous, hintFile).fixNodeId();
+        val executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            executor.schedule(previous::close, 500, TimeUnit.MILLISECONDS);
+            val start = System.currentTimeMillis();
+            Assertions.assertEquals(node, hinted(curator(testingServer.getConnectString()), hintFile).fixNodeId());
+            Assertions.assertTrue(System.currentTimeMillis() - start >= 400);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testHintStillHeldLeavesTimeForNewNodeId(@TempDir Path tempDir) throws Exception {
+        val hintFile = tempDir.resolve("node-id.hint");
+        val node = hinted(curator(testingServer.getConnectString()), hintFile).fixNodeId();
+        //Previous session never goes away within the acquisition timeout
+        Files.writeString(hintFile, Files.readString(hintFile)
+                .replaceAll("sessionTimeoutMs=.*", "sessionTimeoutMs=600000"));
+        val manager = new NodeIdManager(curator(testingServer.getConnectString()), "test", 2, Duration.ofSeconds(2),
+                                        new MetricRegistry(), hintFile);
+        val start = System.currentTimeMillis();
+        val other = manager.fixNodeId();
+        val elapsed = System.currentTimeMillis() - start;
+        Assertions.assertNotEquals(node, other);
+        Assertions.assertTrue(elapsed >= 800 && elapsed < 2_000, "Took " + elapsed + " ms");
+    }
+
+    @Test
+    void testHintHeldByOtherSessionIsSkipped(@TempDir Path tempDir) throws Exception {
+        val hintFile = tempDir.resolve("node-id.hint");
+        val holder = curator(testingServer.getConnectString());
+        val node = hinted(holder, hintFile).fixNodeId();
+        Files.writeString(hintFile, Files.readString(hintFile).replaceAll("sessionId=.*", "sessionId=12345"));
+        val start = System.currentTimeMillis();
+        val other = hinted(curator(testingServer.getConnectString()), hintFile).fixNodeId();
+        Assertions.assertNotEquals(node, other);
+        Assertions.assertTrue(System.currentTimeMillis() - start < 5_000);
+    }
+
+    @Test
+    void testUnreadableHintIsIgnored(@TempDir Path tempDir) throws Exception {
+        val hintFile = tempDir.resolve("node-id.hint");
+        Files.writeString(hintFile, "garbage");
+        val node = hinted(curator(testingServer.getConnectString()), hintFile).fixNodeId();
+        Assertions.assertTrue(node >= 0 && node < Constants.MAX_NUM_NODES);
+        Assertions.assertTrue(Files.readString(hintFile).contains("node=" + node));
+    }
+
+    private NodeIdManager hinted(CuratorFramework curator, Path hintFile) {
+        return new NodeIdManager(curator, "test", 4, Duration.ofSeconds(30), new MetricRegistry(), hintFile);
+    }
+
+    private CuratorFramework curator(String connectString) {
+        val curator = CuratorFrameworkFactory.newClient(connectString, new RetryOneTime(100));
+        curator.start();
+        curators.add(curator);
+        return curator;
+    }
+}
@@ -0,0 +1,31 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link StaticNodeIdProvider}
+ */
+class StaticNodeIdProviderTest {
+
+    @Test
+    void testHandsOutConfiguredId() {
+        try (StaticNodeIdProvider provider = new StaticNodeIdProvider(42)) {
+            Assertions.assertEquals(42, provider.acquire());
+            Assertions.assertEquals(42, provider.acquire());
+        }
+        try (StaticNodeIdProvider provider = new StaticNodeIdProvider(0)) {
+            Assertions.assertEquals(0, provider.acquire());
+        }
+        try (StaticNodeIdProvider provider = new StaticNodeIdProvider(Constants.MAX_NUM_NODES - 1)) {
+            Assertions.assertEquals(Constants.MAX_NUM_NODES - 1, provider.acquire());
+        }
+    }
+
+    @Test
+    void testRangeChecks() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StaticNodeIdProvider(-1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new StaticNodeIdProvider(Constants.MAX_NUM_NODES));
+    }
+}
@@ -0,0 +1,44 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import org.junit.jupiter.api.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+
+/**
+ * Cost of generating version 7 UUIDs from ids against {@link UUID#randomUUID()}
+ */
+@Tag("perf")
+public class UuidIdsPerfTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        private UUID uuid;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            IdGenerator.initialize(23);
+            uuid = IdGenerator.generateUuid();
+        }
+    }
+
+    @Benchmark
+    public void testGenerateUuidV7(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(IdGenerator.generateUuid());
+    }
+
+    @Benchmark
+    public void testRandomUuid(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public void testParseUuidV7(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(UuidIds.toPacked(state.uuid));
+    }
+}
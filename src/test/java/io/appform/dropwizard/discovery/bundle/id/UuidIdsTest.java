@@ -0,0 +1,90 @@
+package io.appform.dropwizard.discovery.bundle.id;
+
+import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatters;
+import lombok.val;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Tests for {@link UuidIds}
+ */
+class UuidIdsTest {
+
+    @BeforeEach
+    void setUp() {
+        IdGenerator.initialize(23);
+    }
+
+    @Test
+    void testLayout() {
+        val time = System.currentTimeMillis();
+        val uuid = UuidIds.toUuid(time, 9999, 999);
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+        Assertions.assertEquals(time, Long.parseLong(uuid.toString().replace("-", "").substring(0, 12), 16));
+        val id = UuidIds.parse(uuid).orElse(null);
+        Assertions.assertNotNull(id);
+        Assertions.assertEquals(time, id.getGeneratedDate().getTime());
+        Assertions.assertEquals(9999, id.getNode());
+        Assertions.assertEquals(999, id.getExponent());
+        Assertions.assertEquals(uuid.toString(), id.getId());
+    }
+
+    @Test
+    void testRoundTrip() {
+        val random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            val time = PackedIds.EPOCH_MILLIS + (long) (random.nextDouble() * 1_000_000_000_000L);
+            val packed = PackedIds.pack(time, random.nextInt(10_000), random.nextInt(1_000));
+            val uuid = UuidIds.fromPacked(packed);
+            Assertions.assertEquals(packed, UuidIds.toPacked(uuid));
+            val formatted = IdFormatters.uuidV7().format(new DateTime(time), PackedIds.node(packed),
+                                                         PackedIds.nonce(packed));
+            Assertions.assertEquals(uuid.toString().substring(0, 19), formatted.substring(0, 19));
+            Assertions.assertEquals(packed, PackedIds.pack(UuidIds.parse(formatted).orElseThrow()));
+            val builder = new StringBuilder("TXN");
+            IdFormatters.uuidV7().formatTo(builder, time, PackedIds.node(packed), PackedIds.nonce(packed));
+            val prefixed = UuidIds.parse(builder.toString()).orElseThrow();
+            Assertions.assertEquals(packed, PackedIds.pack(prefixed));
+            Assertions.assertEquals(builder.toString(), prefixed.getId());
+        }
+    }
+
+    @Test
+    void testLowBitsAreRandom() {
+        val time = System.currentTimeMillis();
+        val seen = new HashSet<Long>();
+        for (int i = 0; i < 1_000; i++) {
+            val uuid = UuidIds.toUuid(time, 23, 42);
+            Assertions.assertTrue(seen.add(uuid.getLeastSignificantBits() & 0xFFFF_FFFF_FFFFL));
+            Assertions.assertEquals(23, UuidIds.parse(uuid).orElseThrow().getNode());
+        }
+    }
+
+    @Test
+    void testGenerate() {
+        val first = IdGenerator.generateUuid();
+        val id = UuidIds.parse(first).orElseThrow();
+        Assertions.assertEquals(23, id.getNode());
+        val converted = UuidIds.toUuid(IdGenerator.generate("X"));
+        Assertions.assertEquals(7, converted.version());
+        Assertions.assertTrue(first.toString().compareTo(UuidIds.toUuid(System.currentTimeMillis() + 1, 0, 0)
+                                                               .toString()) < 0);
+    }
+
+    @Test
+    void testForeignUuids() {
+        Assertions.assertFalse(UuidIds.parse(UUID.randomUUID()).isPresent());
+        Assertions.assertEquals(IdParsers.INVALID, UuidIds.toPacked(UUID.randomUUID()));
+        Assertions.assertFalse(UuidIds.parse("not-a-uuid").isPresent());
+        Assertions.assertFalse(UuidIds.parse("zzzzzzzz-zzzz-zzzz-zzzz-zzzzzzzzzzzz").isPresent());
+        Assertions.assertFalse(UuidIds.parse((String) null).isPresent());
+        Assertions.assertFalse(UuidIds.parse("X" + UUID.randomUUID()).isPresent());
+    }
+}
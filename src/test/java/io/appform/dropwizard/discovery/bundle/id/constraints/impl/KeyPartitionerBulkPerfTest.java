@@ -0,0 +1,60 @@
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import io.appform.dropwizard.discovery.bundle.id.BenchmarkTest;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.PackedIds;
+import org.junit.jupiter.api.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Routing a million existing ids one at a time versus in bulk
+ */
+@Tag("perf")
+public class KeyPartitionerBulkPerfTest extends BenchmarkTest {
+
+    private static final int NUM_IDS = 1_000_000;
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        private final PackedKeyPartitioner partitioner = new MurmurComponentKeyPartitioner(64);
+        private final CharSequence[] ids = new CharSequence[NUM_IDS];
+        private final long[] packedIds = new long[NUM_IDS];
+        private final int[] out = new int[NUM_IDS];
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            IdGenerator.initialize(23);
+            for (int i = 0; i < NUM_IDS; i++) {
+                final var id = IdGenerator.generate("X");
+                ids[i] = id.getId();
+                packedIds[i] = PackedIds.pack(id);
+            }
+        }
+    }
+
+    @Benchmark
+    public void testParseAndPartition(Blackhole blackhole, BenchmarkState state) {
+        for (int i = 0; i < NUM_IDS; i++) {
+            blackhole.consume(IdGenerator.parse(state.ids[i].toString())
+                                      .map(state.partitioner::partition)
+                                      .orElse(-1));
+        }
+    }
+
+    @Benchmark
+    public void testPartitionAllChars(Blackhole blackhole, BenchmarkState state) {
+        state.partitioner.partitionAll(state.ids, state.out);
+        blackhole.consume(state.out);
+    }
+
+    @Benchmark
+    public void testPartitionAllPacked(Blackhole blackhole, BenchmarkState state) {
+        state.partitioner.partitionAll(state.packedIds, state.out);
+        blackhole.consume(state.out);
+    }
+}
@@ -0,0 +1,54 @@
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import io.appform.dropwizard.discovery.bundle.id.BenchmarkTest;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import org.junit.jupiter.api.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per call cost of the different partitioners
+ */
+@Tag("perf")
+public class KeyPartitionerPerfTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        private final KeyPartitioner javaHashCode = new JavaHashCodeBasedKeyPartitioner(64);
+        private final KeyPartitioner murmur = new MurmurBasedKeyPartitioner(64);
+        private final KeyPartitioner murmurComponent = new MurmurComponentKeyPartitioner(64);
+        private final KeyPartitioner jumpConsistentHash = new JumpConsistentHashKeyPartitioner(64);
+        private Id id;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            IdGenerator.initialize(23);
+            id = IdGenerator.generate("X");
+        }
+    }
+
+    @Benchmark
+    public void testJavaHashCode(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.javaHashCode.partition(state.id));
+    }
+
+    @Benchmark
+    public void testMurmur(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.murmur.partition(state.id));
+    }
+
+    @Benchmark
+    public void testMurmurComponent(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.murmurComponent.partition(state.id));
+    }
+
+    @Benchmark
+    public void testJumpConsistentHash(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.jumpConsistentHash.partition(state.id));
+    }
+}
@@ -0,0 +1,194 @@
+package io.appform.dropwizard.discovery.bundle.id.constraints.impl;
+
+import com.google.common.hash.Hashing;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import io.appform.dropwizard.discovery.bundle.id.PackedIds;
+import lombok.val;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Tests for {@link KeyPartitioner} implementations
+ */
+@SuppressWarnings("UnstableApiUsage")
+class KeyPartitionerTest {
+
+    @BeforeEach
+    void setup() {
+        IdGenerator.initialize(23);
+    }
+
+    @AfterEach
+    void cleanup() {
+        IdGenerator.cleanUp();
+    }
+
+    @Test
+    void testMurmurMatchesGuava() {
+        IntStream.range(0, 1000).forEach(i -> {
+            val id = IdGenerator.generate("TEST");
+            val time = id.getGeneratedDate().getTime();
+            Assertions.assertEquals(Hashing.murmur3_32_fixed()
+                                            .newHasher()
+                                            .putLong(time)
+                                            .putInt(id.getNode())
+                                            .putInt(id.getExponent())
+                                            .hash()
+                                            .asInt(),
+                                    Murmur3.hashComponents(time, id.getNode(), id.getExponent()));
+            Assertions.assertEquals(Hashing.murmur3_32_fixed().hashUnencodedChars(id.getId()).asInt(),
+                                    Murmur3.hashChars(id.getId()));
+        });
+        Assertions.assertEquals(Hashing.murmur3_32_fixed().hashUnencodedChars("ABC").asInt(),
+                                Murmur3.hashChars("ABC"));
+    }
+
+    @Test
+    void testMurmurComponentPartitioner() {
+        val partitioner = new MurmurComponentKeyPartitioner(16);
+        val counts = new int[16];
+        IntStream.range(0, 10_000).forEach(i -> {
+            val id = IdGenerator.generate("TEST");
+            val partition = partitioner.partition(id);
+            Assertions.assertEquals(partition,
+                                    partitioner.partition(IdGenerator.parse(id.getId()).orElseThrow()));
+            counts[partition]++;
+        });
+        IntStream.of(counts).forEach(count -> Assertions.assertTrue(count > 0));
+        Assertions.assertEquals(Math.floorMod(Murmur3.hashChars("ABC"), 16),
+                                partitioner.partition(Id.builder().id("ABC").build()));
+    }
+
+    @Test
+    void testMigratingPartitioner() {
+        val legacy = new MurmurBasedKeyPartitioner(16);
+        val current = new MurmurComponentKeyPartitioner(16);
+        val id = IdGenerator.generate("TEST");
+        val migrating = new MigratingKeyPartitioner(legacy, current, MigratingKeyPartitioner.Mode.LEGACY);
+        val partitions = migrating.partitions(id);
+        Assertions.assertEquals(legacy.partition(id), partitions.getLegacy());
+        Assertions.assertEquals(current.partition(id), partitions.getCurrent());
+        Assertions.assertEquals(partitions.getLegacy() != partitions.getCurrent(), partitions.isMoved());
+        Assertions.assertEquals(legacy.partition(id), migrating.partition(id));
+        Assertions.assertEquals(current.partition(id),
+                                new MigratingKeyPartitioner(legacy, current, MigratingKeyPartitioner.Mode.CURRENT)
+                                        .partition(id));
+    }
+
+    @Test
+    void testJumpConsistentHashMovesFewKeys() {
+        val ids = IntStream.range(0, 10_000)
+                .mapToObj(i -> IdGenerator.generate("TEST"))
+                .toArray(Id[]::new);
+        val before = new JumpConsistentHashKeyPartitioner(16);
+        val after = new JumpConsistentHashKeyPartitioner(17);
+        val moduloBefore = new MurmurComponentKeyPartitioner(16);
+        val moduloAfter = new MurmurComponentKeyPartitioner(17);
+        var moved = 0;
+        var movedModulo = 0;
+        for (Id id : ids) {
+            val from = before.partition(id);
+            val to = after.partition(id);
+            Assertions.assertTrue(to == from || to == 16);
+            moved += from != to ? 1 : 0;
+            movedModulo += moduloBefore.partition(id) != moduloAfter.partition(id) ? 1 : 0;
+        }
+        //Expected to move about 1/17th of the keys
+        Assertions.assertTrue(moved < ids.length / 10);
+        Assertions.assertTrue(movedModulo > ids.length / 2);
+    }
+
+    @Test
+    void testPartitionAll() {
+        val generated = IntStream.range(0, 1000)
+                .mapToObj(i -> IdGenerator.generate("TEST"))
+                .toArray(Id[]::new);
+        val ids = new CharSequence[generated.length + 1];
+        val packedIds = new long[generated.length];
+        for (int i = 0; i < generated.length; i++) {
+            ids[i] = new StringBuilder(generated[i].getId());
+            packedIds[i] = PackedIds.pack(generated[i]);
+        }
+        ids[generated.length] = "TESTINVALID";
+        val partitioners = new KeyPartitioner[]{
+                new JavaHashCodeBasedKeyPartitioner(16),
+                new MurmurBasedKeyPartitioner(16),
+                new MurmurComponentKeyPartitioner(16),
+                new JumpConsistentHashKeyPartitioner(16),
+        };
+        for (KeyPartitioner partitioner : partitioners) {
+            val out = new int[ids.length];
+            partitioner.partitionAll(ids, out);
+            for (int i = 0; i < generated.length; i++) {
+                Assertions.assertEquals(partitioner.partition(generated[i]), out[i]);
+            }
+            if (!(partitioner instanceof JavaHashCodeBasedKeyPartitioner)) {
+                Assertions.assertEquals(-1, out[generated.length]);
+            }
+        }
+        for (int p = 2; p < partitioners.length; p++) {
+            val packedPartitioner = (PackedKeyPartitioner) partitioners[p];
+            val out = new int[packedIds.length];
+            packedPartitioner.partitionAll(packedIds, out);
+            for (int i = 0; i < generated.length; i++) {
+                Assertions.assertEquals(packedPartitioner.partition(generated[i]), out[i]);
+            }
+        }
+        Assertions.assertFalse(partitioners[0] instanceof PackedKeyPartitioner);
+        Assertions.assertFalse(partitioners[1] instanceof PackedKeyPartitioner);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> ((PackedKeyPartitioner) partitioners[2]).partitionAll(packedIds, new int[1]));
+    }
+
+    @Test
+    void testPartitionDoesNotDependOnDefaultZone() {
+        val ids = IntStream.range(0, 1000)
+                .mapToObj(i -> IdGenerator.generate("TEST").getId())
+                .toArray(String[]::new);
+        val partitioners = new PackedKeyPartitioner[]{
+                new MurmurComponentKeyPartitioner(16),
+                new JumpConsistentHashKeyPartitioner(16),
+        };
+        val defaultZone = DateTimeZone.getDefault();
+        try {
+            DateTimeZone.setDefault(DateTimeZone.forID("America/New_York"));
+            val before = partitions(partitioners, ids);
+            DateTimeZone.setDefault(DateTimeZone.forID("Asia/Kolkata"));
+            Assertions.assertArrayEquals(before, partitions(partitioners, ids));
+        }
+        finally {
+            DateTimeZone.setDefault(defaultZone);
+        }
+    }
+
+    private static int[][] partitions(PackedKeyPartitioner[] partitioners, String[] ids) {
+        val parsed = Arrays.stream(ids)
+                .map(id -> IdGenerator.parse(id).orElseThrow())
+                .toArray(Id[]::new);
+        val packedIds = Arrays.stream(ids)
+                .mapToLong(IdParsers::parsePacked)
+                .toArray();
+        val result = new int[partitioners.length * 3][];
+        for (int p = 0; p < partitioners.length; p++) {
+            val partitioner = partitioners[p];
+            result[3 * p] = Arrays.stream(parsed)
+                    .mapToInt(partitioner::partition)
+                    .toArray();
+            result[3 * p + 1] = new int[ids.length];
+            partitioner.partitionAll(ids, result[3 * p + 1]);
+            result[3 * p + 2] = new int[ids.length];
+            partitioner.partitionAll(packedIds, result[3 * p + 2]);
+            Assertions.assertArrayEquals(result[3 * p], result[3 * p + 1]);
+            Assertions.assertArrayEquals(result[3 * p], result[3 * p + 2]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import io.appform.dropwizard.discovery.bundle.id.BenchmarkTest;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import org.junit.jupiter.api.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of rejecting ids through the check character against parsing them
+ */
+@Tag("perf")
+public class CheckDigitIdFormatterPerfTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        private final CheckDigitIdFormatter formatter = IdFormatters.checkDigit();
+        private String valid;
+        private String mistyped;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            IdGenerator.initialize(23);
+            valid = IdGenerator.generate("TXN", formatter).getId();
+            final char[] chars = valid.toCharArray();
+            chars[10] = chars[10] == '0' ? '1' : '0';
+            mistyped = new String(chars);
+        }
+    }
+
+    @Benchmark
+    public void testValidate(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.formatter.validate(state.valid));
+    }
+
+    @Benchmark
+    public void testValidateMistyped(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.formatter.validate(state.mistyped));
+    }
+
+    @Benchmark
+    public void testParse(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.formatter.parse(state.valid));
+    }
+}
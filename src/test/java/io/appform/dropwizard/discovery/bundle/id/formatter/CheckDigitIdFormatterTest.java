@@ -0,0 +1,107 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import lombok.val;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for {@link CheckDigitIdFormatter}
+ */
+class CheckDigitIdFormatterTest {
+
+    private final CheckDigitIdFormatter formatter = IdFormatters.checkDigit();
+
+    @Test
+    void testGeneratedIdsValidate() {
+        IdGenerator.initialize(23);
+        for (int i = 0; i < 10_000; i++) {
+            val id = IdGenerator.generate("TXN", formatter).getId();
+            Assertions.assertEquals(3 + formatter.getPayloadLength() + 1, id.length());
+            Assertions.assertTrue(formatter.validate(id), id);
+        }
+    }
+
+    @Test
+    void testAllFormatPathsAgree() {
+        val time = System.currentTimeMillis();
+        val formatted = formatter.format(new DateTime(time), 23, 101);
+        val builder = new StringBuilder("X");
+        formatter.formatTo(builder, time, 23, 101);
+        Assertions.assertEquals("X" + formatted, builder.toString());
+        val buffer = ByteBuffer.allocate(32);
+        formatter.formatTo(buffer, time, 23, 101);
+        Assertions.assertEquals(formatted, new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testRejectsSingleCharacterErrors() {
+        val id = "TXN" + formatter.format(new DateTime(), 23, 101);
+        assertRejectsSubstitutions(formatter, id, 3);
+        Assertions.assertFalse(formatter.validate(id.substring(0, id.length() - 1)));
+        Assertions.assertFalse(formatter.validate(id.substring(4)));
+        Assertions.assertFalse(formatter.validate(id.replace('1', '-')));
+        Assertions.assertFalse(formatter.validate(null));
+    }
+
+    @Test
+    void testParseRoundTrip() {
+        IdGenerator.initialize(23);
+        for (int i = 0; i < 10_000; i++) {
+            val generated = IdGenerator.generate("TXN", formatter);
+            val parsed = formatter.parse(generated.getId()).orElseThrow();
+            Assertions.assertEquals(generated, parsed);
+        }
+        val id = "TXN" + formatter.format(new DateTime(), 23, 101);
+        val mistyped = new StringBuilder(id);
+        mistyped.setCharAt(5, id.charAt(5) == '0' ? '1' : '0');
+        Assertions.assertFalse(formatter.parse(mistyped.toString()).isPresent());
+        Assertions.assertFalse(formatter.parse(id.substring(0, id.length() - 1)).isPresent());
+        Assertions.assertFalse(formatter.parse(null).isPresent());
+    }
+
+    @Test
+    void testParseWrappedFormats() {
+        val time = System.currentTimeMillis();
+        val base32 = new CheckDigitIdFormatter(IdFormatters.crockfordBase32(), CrockfordBase32IdFormatter.LENGTH);
+        val id = "TXN" + base32.format(new DateTime(time), 23, 101);
+        val parsed = base32.parse(id).orElseThrow();
+        Assertions.assertEquals(id, parsed.getId());
+        Assertions.assertEquals(time, parsed.getGeneratedDate().getTime());
+        Assertions.assertEquals(23, parsed.getNode());
+        Assertions.assertEquals(101, parsed.getExponent());
+        Assertions.assertEquals(parsed.getGeneratedDate(),
+                                base32.parse(id.toLowerCase()).orElseThrow().getGeneratedDate());
+        assertRejectsSubstitutions(base32, id, 3);
+    }
+
+    @Test
+    void testWrapsAlphanumericFormatters() {
+        val base32 = new CheckDigitIdFormatter(IdFormatters.crockfordBase32(), CrockfordBase32IdFormatter.LENGTH);
+        val id = base32.format(new DateTime(), 23, 101);
+        Assertions.assertTrue(base32.validate(id));
+        Assertions.assertTrue(base32.validate(id.toLowerCase()));
+        val wrongLength = new CheckDigitIdFormatter(IdFormatters.original(), 10);
+        Assertions.assertThrows(IllegalStateException.class, () -> wrongLength.format(new DateTime(), 1, 1));
+    }
+
+    private static void assertRejectsSubstitutions(CheckDigitIdFormatter formatter, String id, int prefixLength) {
+        val alphabet = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        for (int i = prefixLength; i < id.length(); i++) {
+            for (int c = 0; c < alphabet.length(); c++) {
+                val substitute = alphabet.charAt(c);
+                if (Character.toUpperCase(id.charAt(i)) == substitute) {
+                    continue;
+                }
+                val mistyped = new StringBuilder(id);
+                mistyped.setCharAt(i, substitute);
+                Assertions.assertFalse(formatter.validate(mistyped), mistyped.toString());
+                Assertions.assertFalse(formatter.parse(mistyped.toString()).isPresent(), mistyped.toString());
+            }
+        }
+    }
+}
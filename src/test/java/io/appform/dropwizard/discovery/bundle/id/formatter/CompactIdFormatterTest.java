@@ -0,0 +1,97 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import io.appform.dropwizard.discovery.bundle.id.Domain;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import lombok.val;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for {@link CompactIdFormatter}
+ */
+class CompactIdFormatterTest {
+
+    private static final long EPOCH = 1_700_000_000_000L;
+
+    private final CompactIdFormatter formatter = IdFormatters.compact(EPOCH);
+
+    @AfterEach
+    void cleanup() {
+        IdGenerator.cleanUp();
+    }
+
+    @Test
+    void testRoundTrip() {
+        val random = new Random(42);
+        String previous = null;
+        long time = EPOCH;
+        for (int i = 0; i < 100_000; i++) {
+            time += random.nextInt(10_000_000);
+            val node = random.nextInt(10_000);
+            val nonce = random.nextInt(1_000);
+            val formatted = formatter.format(new DateTime(time), node, nonce);
+            Assertions.assertEquals(CompactIdFormatter.LENGTH, formatted.length());
+            val parsed = formatter.parse("P" + formatted).orElseThrow();
+            Assertions.assertEquals(time, parsed.getGeneratedDate().getTime());
+            Assertions.assertEquals(node, parsed.getNode());
+            Assertions.assertEquals(nonce, parsed.getExponent());
+            if (null != previous) {
+                Assertions.assertTrue(previous.compareTo(formatted) <= 0);
+            }
+            previous = formatted;
+        }
+    }
+
+    @Test
+    void testConversionFromAndToDefaultFormat() {
+        IdGenerator.initialize(23);
+        for (int i = 0; i < 1_000; i++) {
+            val original = IdGenerator.generate("T");
+            val parsed = IdParsers.parse(original.getId()).orElseThrow();
+
+            val compact = "T" + formatter.format(new DateTime(parsed.getGeneratedDate()),
+                                                 parsed.getNode(),
+                                                 parsed.getExponent());
+            Assertions.assertEquals(1 + CompactIdFormatter.LENGTH, compact.length());
+            Assertions.assertTrue(compact.length() < original.getId().length());
+
+            val fromCompact = formatter.parse(compact).orElseThrow();
+            Assertions.assertEquals(original.getGeneratedDate(), fromCompact.getGeneratedDate());
+            val restored = "T" + IdFormatters.original().format(new DateTime(fromCompact.getGeneratedDate()),
+                                                                fromCompact.getNode(),
+                                                                fromCompact.getExponent());
+            Assertions.assertEquals(original.getId(), restored);
+        }
+    }
+
+    @Test
+    void testSelectablePerDomain() {
+        IdGenerator.initialize(23);
+        IdGenerator.registerDomain(Domain.builder()
+                                           .domain("compact")
+                                           .constraints(List.of())
+                                           .idFormatter(formatter)
+                                           .build());
+        val id = IdGenerator.generateWithConstraints("C", "compact").orElseThrow();
+        Assertions.assertEquals(1 + CompactIdFormatter.LENGTH, id.getId().length());
+        Assertions.assertEquals(id, formatter.parse(id.getId()).orElseThrow());
+    }
+
+    @Test
+    void testInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> formatter.format(new DateTime(EPOCH - 1), 1, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IdFormatters.compact(-1));
+        Assertions.assertFalse(formatter.parse(null).isPresent());
+        Assertions.assertFalse(formatter.parse("short").isPresent());
+        Assertions.assertFalse(formatter.parse("zzzzzzzzzzz").isPresent());
+        Assertions.assertFalse(formatter.parse("0000000000-").isPresent());
+        Assertions.assertEquals(IdParsers.INVALID, formatter.decode("000000000GV"));
+    }
+}
@@ -0,0 +1,85 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import io.appform.dropwizard.discovery.bundle.id.PackedIds;
+import lombok.val;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Tests for {@link CrockfordBase32IdFormatter}
+ */
+class CrockfordBase32IdFormatterTest {
+
+    private final IdFormatter formatter = IdFormatters.crockfordBase32();
+
+    @Test
+    void testRoundTrip() {
+        val random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            val time = PackedIds.EPOCH_MILLIS + (long) (random.nextDouble() * 1_000_000_000_000L);
+            val node = random.nextInt(10_000);
+            val nonce = random.nextInt(1_000);
+            val formatted = formatter.format(new DateTime(time), node, nonce);
+            Assertions.assertEquals(CrockfordBase32IdFormatter.LENGTH, formatted.length());
+            val packed = IdParsers.parseBase32Packed("P" + formatted);
+            Assertions.assertEquals(time, PackedIds.time(packed));
+            Assertions.assertEquals(node, PackedIds.node(packed));
+            Assertions.assertEquals(nonce, PackedIds.nonce(packed));
+            Assertions.assertEquals(packed, IdParsers.parseBase32Packed(formatted.toLowerCase()));
+            val builder = new StringBuilder();
+            formatter.formatTo(builder, time, node, nonce);
+            Assertions.assertEquals(formatted, builder.toString());
+        }
+    }
+
+    @Test
+    void testLexicographicOrderMatchesTimeOrder() {
+        val random = new Random(7);
+        var previous = formatter.format(new DateTime(PackedIds.EPOCH_MILLIS), 9999, 999);
+        var time = PackedIds.EPOCH_MILLIS;
+        for (int i = 0; i < 100_000; i++) {
+            time += 1 + random.nextInt(100_000);
+            val current = formatter.format(new DateTime(time), random.nextInt(10_000), random.nextInt(1_000));
+            Assertions.assertTrue(previous.compareTo(current) < 0, previous + " >= " + current);
+            previous = current;
+        }
+    }
+
+    @Test
+    void testGeneratedIdsSortAcrossMilliseconds() {
+        IdGenerator.initialize(23);
+        val ids = new ArrayList<Id>();
+        val start = System.currentTimeMillis();
+        while (System.currentTimeMillis() - start < 20) {
+            ids.add(IdGenerator.generate("X", formatter));
+        }
+        val sorted = new ArrayList<>(ids);
+        sorted.sort(Comparator.comparing(Id::getId));
+        for (int i = 1; i < sorted.size(); i++) {
+            Assertions.assertFalse(sorted.get(i).getGeneratedDate().before(sorted.get(i - 1).getGeneratedDate()));
+        }
+        Assertions.assertTrue(ids.get(ids.size() - 1).getGeneratedDate().after(ids.get(0).getGeneratedDate()));
+        val parsed = IdParsers.parseBase32(ids.get(0).getId()).orElse(null);
+        Assertions.assertEquals(ids.get(0), parsed);
+    }
+
+    @Test
+    void testDecodingAliasesAndFailures() {
+        val formatted = formatter.format(new DateTime(PackedIds.EPOCH_MILLIS + 1_000_000_000L), 1, 10);
+        val aliased = formatted.replace('0', 'O').replace('1', 'l');
+        Assertions.assertEquals(IdParsers.parseBase32Packed(formatted), IdParsers.parseBase32Packed(aliased));
+        Assertions.assertEquals(IdParsers.INVALID, IdParsers.parseBase32Packed(null));
+        Assertions.assertEquals(IdParsers.INVALID, IdParsers.parseBase32Packed("0123"));
+        Assertions.assertEquals(IdParsers.INVALID, IdParsers.parseBase32Packed("G000000000000"));
+        Assertions.assertEquals(IdParsers.INVALID, IdParsers.parseBase32Packed("0000000000U00"));
+        Assertions.assertFalse(IdParsers.parseBase32("XYZ").isPresent());
+    }
+}
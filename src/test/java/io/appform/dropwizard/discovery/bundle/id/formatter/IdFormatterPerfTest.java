@@ -0,0 +1,65 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import io.appform.dropwizard.discovery.bundle.id.BenchmarkTest;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import org.junit.jupiter.api.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Encode and decode cost of the different id formats
+ */
+@Tag("perf")
+public class IdFormatterPerfTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        private final StringBuilder builder = new StringBuilder(32);
+        private final long time = System.currentTimeMillis();
+        private String original;
+        private String base32;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            IdGenerator.initialize(23);
+            original = IdGenerator.generate("X", IdFormatters.original()).getId();
+            base32 = IdGenerator.generate("X", IdFormatters.crockfordBase32()).getId();
+        }
+    }
+
+    @Benchmark
+    public void testEncodeOriginal(Blackhole blackhole, BenchmarkState state) {
+        state.builder.setLength(0);
+        IdFormatters.original().formatTo(state.builder, state.time, 23, 101);
+        blackhole.consume(state.builder);
+    }
+
+    @Benchmark
+    public void testEncodeBase36(Blackhole blackhole, BenchmarkState state) {
+        state.builder.setLength(0);
+        IdFormatters.base36().formatTo(state.builder, state.time, 23, 101);
+        blackhole.consume(state.builder);
+    }
+
+    @Benchmark
+    public void testEncodeCrockfordBase32(Blackhole blackhole, BenchmarkState state) {
+        state.builder.setLength(0);
+        IdFormatters.crockfordBase32().formatTo(state.builder, state.time, 23, 101);
+        blackhole.consume(state.builder);
+    }
+
+    @Benchmark
+    public void testDecodeOriginal(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(IdParsers.parsePacked(state.original));
+    }
+
+    @Benchmark
+    public void testDecodeCrockfordBase32(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(IdParsers.parseBase32Packed(state.base32));
+    }
+}
@@ -0,0 +1,57 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import lombok.val;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Tests for {@link IdFormatter} implementations
+ */
+class IdFormattersTest {
+
+    @Test
+    void testFormatToMatchesFormat() throws IOException {
+        val random = new Random(42);
+        val formatters = new IdFormatter[]{IdFormatters.original(), IdFormatters.base36()};
+        for (int i = 0; i < 100_000; i++) {
+            val time = 1_451_606_400_000L + (long) (random.nextDouble() * 1_000_000_000_000L);
+            val node = random.nextInt(10_000);
+            val nonce = random.nextInt(1_000);
+            for (IdFormatter formatter : formatters) {
+                val expected = formatter.format(new DateTime(time), node, nonce);
+
+                val builder = new StringBuilder("X");
+                formatter.formatTo(builder, time, node, nonce);
+                Assertions.assertEquals("X" + expected, builder.toString());
+
+                val writer = new StringWriter();
+                formatter.formatTo((Appendable) writer, time, node, nonce);
+                Assertions.assertEquals(expected, writer.toString());
+
+                val buffer = ByteBuffer.allocate(32);
+                formatter.formatTo(buffer, time, node, nonce);
+                Assertions.assertEquals(expected,
+                                        new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+            }
+        }
+    }
+
+    @Test
+    void testDefaultFormatToForCustomFormatter() {
+        IdFormatter formatter = (dateTime, nodeId, randomNonce) -> "CUSTOM" + nodeId;
+        val builder = new StringBuilder();
+        formatter.formatTo(builder, System.currentTimeMillis(), 12, 1);
+        Assertions.assertEquals("CUSTOM12", builder.toString());
+        val base36 = new Base36IdFormatter((dateTime, nodeId, randomNonce) -> "1" + nodeId);
+        val base36Builder = new StringBuilder();
+        base36.formatTo(base36Builder, System.currentTimeMillis(), 35, 1);
+        Assertions.assertEquals("Z", base36Builder.toString());
+    }
+}
@@ -0,0 +1,79 @@
+package io.appform.dropwizard.discovery.bundle.id.formatter;
+
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.IdParsers;
+import io.appform.dropwizard.discovery.bundle.id.PackedIds;
+import lombok.val;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for {@link ZoneOffsets}
+ */
+class ZoneOffsetsTest {
+    private static final DateTimeZone NEW_YORK = DateTimeZone.forID("America/New_York");
+    //2021-03-14T07:00Z, clocks go from 02:00 EST to 03:00 EDT
+    private static final long SPRING_FORWARD = 1_615_705_200_000L;
+    //2021-11-07T06:00Z, clocks go from 02:00 EDT back to 01:00 EST
+    private static final long FALL_BACK = 1_636_264_800_000L;
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private DateTimeZone previous;
+
+    @BeforeEach
+    void setUp() {
+        previous = DateTimeZone.getDefault();
+        DateTimeZone.setDefault(NEW_YORK);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DateTimeZone.setDefault(previous);
+    }
+
+    @Test
+    void testParseAcrossSpringForward() {
+        for (long time = SPRING_FORWARD - 3 * HOUR; time < SPRING_FORWARD + 3 * HOUR; time += 60_007L) {
+            assertParsesTo(time, time);
+        }
+    }
+
+    @Test
+    void testParseAcrossFallBack() {
+        for (long time = FALL_BACK - 3 * HOUR; time < FALL_BACK + 3 * HOUR; time += 60_007L) {
+            //Local times in the repeated hour are ambiguous and resolve to the earlier instant, as with joda
+            val expected = time >= FALL_BACK && time < FALL_BACK + HOUR
+                           ? time - HOUR
+                           : time;
+            assertParsesTo(time, expected);
+        }
+    }
+
+    @Test
+    void testFollowsDefaultZoneChanges() {
+        val id = format(FALL_BACK);
+        DateTimeZone.setDefault(DateTimeZone.UTC);
+        Assertions.assertNotEquals(id, format(FALL_BACK));
+        Assertions.assertEquals(FALL_BACK, PackedIds.time(IdParsers.parsePacked(format(FALL_BACK))));
+        Assertions.assertEquals(FALL_BACK, IdGenerator.parse(format(FALL_BACK)).orElseThrow().getGeneratedDate().getTime());
+    }
+
+    private static void assertParsesTo(long time, long expected) {
+        val id = format(time);
+        Assertions.assertEquals("T" + IdFormatters.original().format(new DateTime(time), 1234, 567), id);
+        Assertions.assertEquals(expected, PackedIds.time(IdParsers.parsePacked(id)), id);
+        Assertions.assertEquals(expected, IdGenerator.parse(id).orElseThrow().getGeneratedDate().getTime(), id);
+    }
+
+    private static String format(long time) {
+        val builder = new StringBuilder("T");
+        IdFormatters.original().formatTo(builder, time, 1234, 567);
+        return builder.toString();
+    }
+}
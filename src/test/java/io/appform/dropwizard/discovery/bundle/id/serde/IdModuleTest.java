@@ -0,0 +1,112 @@
+package io.appform.dropwizard.discovery.bundle.id.serde;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import io.appform.dropwizard.discovery.bundle.id.UuidIds;
+import io.appform.dropwizard.discovery.bundle.id.formatter.IdFormatters;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+/**
+ * Tests for {@link IdModule} and {@link IdParamConverterProvider}
+ */
+class IdModuleTest {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Wrapper {
+        private Id id;
+        private String name;
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new IdModule());
+
+    @BeforeEach
+    void setUp() {
+        IdGenerator.initialize(23);
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        val id = IdGenerator.generate("TEST");
+        val json = mapper.writeValueAsString(new Wrapper(id, "x"));
+        Assertions.assertEquals("{\"id\":\"" + id.getId() + "\",\"name\":\"x\"}", json);
+        val read = mapper.readValue(json, Wrapper.class);
+        Assertions.assertEquals(id, read.getId());
+        Assertions.assertEquals(IdGenerator.parse(id.getId()).orElse(null), read.getId());
+    }
+
+    @Test
+    void testReadsLegacyBean() throws Exception {
+        val id = IdGenerator.generate("TEST");
+        val legacyJson = new ObjectMapper().writeValueAsString(new Wrapper(id, "x"));
+        Assertions.assertTrue(legacyJson.startsWith("{\"id\":{"));
+        val read = mapper.readValue(legacyJson, Wrapper.class);
+        Assertions.assertEquals(id, read.getId());
+        Assertions.assertEquals("x", read.getName());
+
+        //Bean fields are used when the id itself is in a format that can't be parsed
+        val custom = mapper.readValue("{\"id\":{\"id\":\"CUSTOM-1\",\"generatedDate\":1600000000000,"
+                                              + "\"node\":12,\"exponent\":34},\"name\":\"y\"}",
+                                      Wrapper.class);
+        Assertions.assertEquals(new Id("CUSTOM-1", new Date(1_600_000_000_000L), 12, 34), custom.getId());
+        Assertions.assertEquals("y", custom.getName());
+    }
+
+    @Test
+    void testNulls() throws Exception {
+        Assertions.assertEquals("{\"id\":null,\"name\":null}", mapper.writeValueAsString(new Wrapper()));
+        Assertions.assertNull(mapper.readValue("{\"id\":null}", Wrapper.class).getId());
+    }
+
+    @Test
+    void testUnparseableIdsAreKeptAsIs() throws Exception {
+        Assertions.assertEquals(new Id("NOT_AN_ID", null, 0, 0),
+                                mapper.readValue("{\"id\":\"NOT_AN_ID\"}", Wrapper.class).getId());
+        Assertions.assertEquals(new Id("X", null, 0, 0),
+                                mapper.readValue("{\"id\":{\"id\":\"X\"}}", Wrapper.class).getId());
+        Assertions.assertThrows(JsonMappingException.class,
+                                () -> mapper.readValue("{\"id\":{\"name\":\"X\"}}", Wrapper.class));
+        Assertions.assertThrows(JsonMappingException.class, () -> mapper.readValue("{\"id\":12}", Wrapper.class));
+    }
+
+    @Test
+    void testOtherFormatsRoundTrip() throws Exception {
+        val base36 = IdGenerator.generate("TEST", IdFormatters.base36());
+        val json = mapper.writeValueAsString(new Wrapper(base36, "x"));
+        Assertions.assertEquals(base36.getId(), mapper.readValue(json, Wrapper.class).getId().getId());
+
+        val checkDigitMapper = new ObjectMapper().registerModule(new IdModule(IdFormatters.checkDigit()::parse));
+        val checkDigit = IdGenerator.generate("TEST", IdFormatters.checkDigit());
+        val read = checkDigitMapper.readValue(checkDigitMapper.writeValueAsString(new Wrapper(checkDigit, "x")),
+                                              Wrapper.class);
+        Assertions.assertEquals(checkDigit, read.getId());
+    }
+
+    @Test
+    void testParamConverter() {
+        val provider = new IdParamConverterProvider();
+        Assertions.assertNull(provider.getConverter(String.class, String.class, null));
+        val converter = provider.getConverter(Id.class, Id.class, null);
+        Assertions.assertNotNull(converter);
+        val id = IdGenerator.generate("TEST");
+        Assertions.assertEquals(id, converter.fromString(id.getId()));
+        Assertions.assertEquals(id.getId(), converter.toString(id));
+        Assertions.assertEquals(new Id("NOT_AN_ID", null, 0, 0), converter.fromString("NOT_AN_ID"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> converter.fromString(null));
+
+        val uuidConverter = new IdParamConverterProvider(UuidIds::parse).getConverter(Id.class, Id.class, null);
+        val uuid = IdGenerator.generate("", IdFormatters.uuidV7());
+        Assertions.assertEquals(uuid, uuidConverter.fromString(uuid.getId()));
+    }
+}
@@ -0,0 +1,63 @@
+package io.appform.dropwizard.discovery.bundle.id.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.dropwizard.discovery.bundle.id.BenchmarkTest;
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of (de)serializing an {@link Id} as a bean vs through {@link IdModule}
+ */
+@Tag("perf")
+public class IdSerializationPerfTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        private final ObjectMapper beanMapper = new ObjectMapper();
+        private final ObjectMapper moduleMapper = new ObjectMapper().registerModule(new IdModule());
+        private Id id;
+        private String beanJson;
+        private String moduleJson;
+
+        @Setup(Level.Trial)
+        @SneakyThrows
+        public void setUp() {
+            IdGenerator.initialize(23);
+            id = IdGenerator.generate("X");
+            beanJson = beanMapper.writeValueAsString(id);
+            moduleJson = moduleMapper.writeValueAsString(id);
+        }
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public void testSerializeBean(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.beanMapper.writeValueAsString(state.id));
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public void testSerializeModule(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.moduleMapper.writeValueAsString(state.id));
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public void testDeserializeBean(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.beanMapper.readValue(state.beanJson, Id.class));
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public void testDeserializeModule(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.moduleMapper.readValue(state.moduleJson, Id.class));
+    }
+}
@@ -0,0 +1,85 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Test for {@link DuplicateIdFinder}
+ */
+class DuplicateIdFinderTest {
+
+    @AfterEach
+    void cleanup() {
+        IdGenerator.cleanUp();
+    }
+
+    @Test
+    void testFindDuplicates(@TempDir Path tempDir) throws Exception {
+        IdGenerator.initialize(23);
+        val ids = IntStream.range(0, 10_000)
+                .mapToObj(i -> IdGenerator.generate("TEST").getId())
+                .collect(Collectors.toList());
+        val duplicate = ids.get(1234);
+        val content = new StringBuilder();
+        ids.forEach(id -> content.append(id).append('\n'));
+        content.append(duplicate).append('\n');
+        content.append("OTHER").append(duplicate, 4, duplicate.length()).append('\n');
+        content.append("NOT_AN_ID\n");
+        val file = tempDir.resolve("ids.txt");
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        val found = new ArrayList<DuplicateIdFinder.DuplicateId>();
+        val finder = new DuplicateIdFinder(20_000, found::add);
+        new IdFileScanner(file, 4096).scan(finder);
+
+        Assertions.assertEquals(10_003, finder.getTotal());
+        Assertions.assertEquals(1, finder.getUnparseable());
+        Assertions.assertEquals(1, finder.getDuplicates());
+        Assertions.assertEquals(duplicate, found.get(0).getId());
+        val parsed = IdGenerator.parse(duplicate).orElseThrow();
+        Assertions.assertEquals(23, found.get(0).getNode());
+        Assertions.assertEquals(parsed.getExponent(), found.get(0).getExponent());
+        Assertions.assertEquals(parsed.getGeneratedDate().toInstant(), found.get(0).getGeneratedAt());
+
+        Assertions.assertFalse(finder.offer(duplicate));
+        Assertions.assertTrue(finder.offer(IdGenerator.generate("TEST").getId()));
+    }
+
+    @Test
+    void testDuplicatesAreScopedToPrefix(@TempDir Path tempDir) throws Exception {
+        IdGenerator.initialize(23);
+        val ids = IntStream.range(0, 1_000)
+                .mapToObj(i -> IdGenerator.generate("ORDER").getId())
+                .collect(Collectors.toList());
+        val content = new StringBuilder();
+        ids.forEach(id -> content.append(id).append('\n'));
+        //Same time, node and exponent under another prefix is a different id
+        ids.forEach(id -> content.append("REFUND").append(id, 5, id.length()).append('\n'));
+        content.append("REFUND").append(ids.get(7), 5, ids.get(7).length()).append('\n');
+        val file = tempDir.resolve("ids.txt");
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        val found = new ArrayList<DuplicateIdFinder.DuplicateId>();
+        val finder = new DuplicateIdFinder(4_000, found::add);
+        new IdFileScanner(file, 4096).scan(finder);
+
+        Assertions.assertEquals(2_001, finder.getTotal());
+        Assertions.assertEquals(1, finder.getDuplicates());
+        Assertions.assertEquals("REFUND" + ids.get(7).substring(5), found.get(0).getId());
+
+        Assertions.assertFalse(finder.offer(ids.get(3)));
+        Assertions.assertFalse(finder.offer("REFUND" + ids.get(3).substring(5)));
+        Assertions.assertTrue(finder.offer("PAYOUT" + ids.get(3).substring(5)));
+    }
+}
@@ -0,0 +1,68 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import io.appform.dropwizard.discovery.bundle.id.Id;
+import io.appform.dropwizard.discovery.bundle.id.IdGenerator;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Test for {@link IdAnalyticsCommand}
+ */
+class IdAnalyticsCommandTest {
+
+    @AfterEach
+    void cleanup() {
+        IdGenerator.cleanUp();
+    }
+
+    @Test
+    void testAnalyze(@TempDir Path tempDir) throws Exception {
+        IdGenerator.initialize(23);
+        val first = IntStream.range(0, 5000)
+                .mapToObj(i -> IdGenerator.generate("TEST"))
+                .collect(Collectors.toList());
+        IdGenerator.initialize(42);
+        val second = IntStream.range(0, 3000)
+                .mapToObj(i -> IdGenerator.generate("TEST"))
+                .collect(Collectors.toList());
+        val content = new StringBuilder();
+        first.forEach(id -> content.append(id.getId()).append('\n'));
+        content.append("NOT_AN_ID\r\n\n");
+        second.forEach(id -> content.append(id.getId()).append("\r\n"));
+        content.append("ABC2032250959030643972247");
+        val file = tempDir.resolve("ids.txt");
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        val pool = new ForkJoinPool(4);
+        try {
+            val stats = IdAnalyticsCommand.analyze(new IdFileScanner(file, 1024), pool);
+            Assertions.assertEquals(8002, stats.getTotal());
+            Assertions.assertEquals(2, stats.getUnparseable());
+            Assertions.assertEquals(2, stats.perNode().size());
+            Assertions.assertEquals(5000L, stats.perNode().get(23));
+            Assertions.assertEquals(3000L, stats.perNode().get(42));
+            Assertions.assertEquals(8000L, stats.perSecond().values().stream().mapToLong(Long::longValue).sum());
+            val firstSecond = Instant.ofEpochSecond(Math.floorDiv(first.get(0).getGeneratedDate().getTime(), 1000L));
+            Assertions.assertEquals(first.stream()
+                                            .map(Id::getGeneratedDate)
+                                            .filter(date -> Math.floorDiv(date.getTime(), 1000L)
+                                                    == firstSecond.getEpochSecond())
+                                            .count(),
+                                    stats.perSecond().get(firstSecond));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+}
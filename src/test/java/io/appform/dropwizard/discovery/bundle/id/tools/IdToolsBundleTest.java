@@ -0,0 +1,41 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import io.appform.dropwizard.discovery.bundle.ServiceDiscoveryBundle;
+import io.appform.dropwizard.discovery.bundle.ServiceDiscoveryConfiguration;
+import io.dropwizard.Configuration;
+import io.dropwizard.setup.Bootstrap;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Test for {@link IdToolsBundle}
+ */
+class IdToolsBundleTest {
+
+    @Test
+    void testCommandsAreOptIn() {
+        val bootstrap = mock(Bootstrap.class);
+        val discoveryBundle = new ServiceDiscoveryBundle<Configuration>() {
+            @Override
+            protected ServiceDiscoveryConfiguration getRangerConfiguration(Configuration configuration) {
+                return null;
+            }
+
+            @Override
+            protected String getServiceName(Configuration configuration) {
+                return "test";
+            }
+        };
+        discoveryBundle.initialize(bootstrap);
+        verifyNoInteractions(bootstrap);
+
+        new IdToolsBundle().initialize(bootstrap);
+        verify(bootstrap).addCommand(isA(IdAnalyticsCommand.class));
+        verify(bootstrap).addCommand(isA(DuplicateIdCommand.class));
+    }
+}
@@ -0,0 +1,45 @@
+package io.appform.dropwizard.discovery.bundle.id.tools;
+
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Test for {@link OffHeapLongSet}
+ */
+class OffHeapLongSetTest {
+
+    @Test
+    void testAddAndContains() {
+        //Small segments to exercise lookups across buffers
+        val set = new OffHeapLongSet(100_000, 10);
+        val reference = new HashSet<Long>();
+        val random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            val value = random.nextInt(200_000) - 100_000L;
+            Assertions.assertEquals(reference.add(value), set.add(value));
+        }
+        Assertions.assertEquals(reference.size(), set.getSize());
+        reference.forEach(value -> Assertions.assertTrue(set.contains(value)));
+        Assertions.assertFalse(set.contains(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testFull() {
+        val set = new OffHeapLongSet(10);
+        var added = 0;
+        while (added < set.getCapacity()) {
+            if (added >= (long) (set.getCapacity() * 0.7)) {
+                final long value = added + 1;
+                Assertions.assertThrows(IllegalStateException.class, () -> set.add(value));
+                return;
+            }
+            Assertions.assertTrue(set.add(added + 1));
+            added++;
+        }
+        Assertions.fail("Set never reported being full");
+    }
+}
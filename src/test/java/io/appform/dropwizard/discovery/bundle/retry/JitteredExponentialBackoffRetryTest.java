@@ -0,0 +1,110 @@
+package io.appform.dropwizard.discovery.bundle.retry;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.curator.RetryPolicy;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryForever;
+import org.apache.curator.test.TestingServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link JitteredExponentialBackoffRetry}
+ */
+@Slf4j
+class JitteredExponentialBackoffRetryTest {
+    private static final int NUM_CLIENTS = 20;
+
+    @Test
+    void testSleepTimesStayWithinCeiling() {
+        val retry = new JitteredExponentialBackoffRetry(100, 2_000);
+        for (int retryCount = 0; retryCount < 64; retryCount++) {
+            val ceiling = Math.min(2_000L, 100L << Math.min(retryCount, 30));
+            long max = 0;
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < 1_000; i++) {
+                val sleep = retry.sleepTimeMs(retryCount);
+                Assertions.assertTrue(sleep >= 0 && sleep <= ceiling, "Sleep " + sleep + " beyond " + ceiling);
+                max = Math.max(max, sleep);
+                min = Math.min(min, sleep);
+            }
+            Assertions.assertTrue(max > ceiling / 2 && min < ceiling / 2, "Sleeps are not spread out");
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JitteredExponentialBackoffRetry(0, 100));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JitteredExponentialBackoffRetry(100, 50));
+    }
+
+    /**
+     * Clients keep retrying an operation through an ensemble restart. The time each one completes after the restart
+     * should be spread out instead of bunched up, as it is with a fixed retry interval.
+     */
+    @Test
+    void testRetriesAreSpreadAfterEnsembleRestart() throws Exception {
+        val fixedSpread = completionSpreadAfterRestart(() -> new RetryForever(200));
+        val jitteredSpread = completionSpreadAfterRestart(() -> new JitteredExponentialBackoffRetry(100, 2_000));
+        log.info("Completion spread after restart. Fixed interval: {} ms, jittered: {} ms",
+                 fixedSpread, jitteredSpread);
+        Assertions.assertTrue(jitteredSpread >= fixedSpread + 500,
+                              "Jittered retries spread over " + jitteredSpread
+                                      + " ms, hardly more than fixed interval retries over " + fixedSpread + " ms");
+    }
+
+    private static long completionSpreadAfterRestart(Supplier<RetryPolicy> retryPolicy) throws Exception {
+        val executor = Executors.newFixedThreadPool(NUM_CLIENTS);
+        val clients = new ArrayList<CuratorFramework>();
+        try (TestingServer server = new TestingServer(true)) {
+            for (int i = 0; i < NUM_CLIENTS; i++) {
+                val client = CuratorFrameworkFactory.builder()
+                        .connectString(server.getConnectString())
+                        .connectionTimeoutMs(500)
+                        .sessionTimeoutMs(60_000)
+                        .retryPolicy(retryPolicy.get())
+                        .build();
+                client.start();
+                Assertions.assertTrue(client.blockUntilConnected(10, TimeUnit.SECONDS));
+                clients.add(client);
+            }
+            clients.get(0).create().forPath("/probe");
+
+            server.stop();
+            val operations = clients.stream()
+                    .map(client -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            client.checkExists().forPath("/probe");
+                            return System.nanoTime();
+                        }
+                        catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, executor))
+                    .collect(Collectors.toList());
+            Thread.sleep(3_000);
+            val restarted = System.nanoTime();
+            server.restart();
+
+            val completions = new ArrayList<Long>();
+            for (val operation : operations) {
+                completions.add(TimeUnit.NANOSECONDS.toMillis(operation.get(60, TimeUnit.SECONDS) - restarted));
+            }
+            completions.sort(Long::compare);
+            log.info("Clients completed {} ms after restart", completions);
+            return completions.get(NUM_CLIENTS - 1) - completions.get(0);
+        }
+        finally {
+            clients.forEach(CuratorFramework::close);
+            executor.shutdownNow();
+        }
+    }
+}
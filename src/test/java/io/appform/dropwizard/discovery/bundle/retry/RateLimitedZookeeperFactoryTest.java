@@ -0,0 +1,47 @@
+package io.appform.dropwizard.discovery.bundle.retry;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import org.apache.curator.utils.ZookeeperFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RateLimitedZookeeperFactory}
+ */
+class RateLimitedZookeeperFactoryTest {
+
+    @Test
+    void testSessionsAreSpacedOut() throws Exception {
+        val created = new ArrayList<Long>();
+        final ZookeeperFactory delegate = (connectString, sessionTimeout, watcher, canBeReadOnly) -> {
+            created.add(System.nanoTime());
+            return null;
+        };
+        val factory = new RateLimitedZookeeperFactory(delegate, 200);
+        val start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            factory.newZooKeeper("localhost:2181", 1000, null, false);
+        }
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(created.get(0) - start) < 100,
+                              "First session should not be delayed");
+        for (int i = 1; i < created.size(); i++) {
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(created.get(i) - created.get(i - 1)) >= 199,
+                                  "Sessions should be at least the interval apart");
+        }
+    }
+
+    @Test
+    void testWaitIsCappedBelowSessionTimeout() throws Exception {
+        final ZookeeperFactory delegate = (connectString, sessionTimeout, watcher, canBeReadOnly) -> null;
+        val factory = new RateLimitedZookeeperFactory(delegate, 60_000);
+        factory.newZooKeeper("localhost:2181", 400, null, false);
+        for (int i = 0; i < 3; i++) {
+            val start = System.nanoTime();
+            factory.newZooKeeper("localhost:2181", 400, null, false);
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 300,
+                                  "Wait should be capped at a quarter of the session timeout");
+        }
+    }
+}
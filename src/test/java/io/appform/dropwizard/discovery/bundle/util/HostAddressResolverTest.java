@@ -0,0 +1,58 @@
+package io.appform.dropwizard.discovery.bundle.util;
+
+import com.alibaba.dcm.DnsCacheManipulator;
+import com.codahale.metrics.MetricRegistry;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link HostAddressResolver}
+ */
+class HostAddressResolverTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final HostAddressResolver resolver = new HostAddressResolver(Duration.ofSeconds(5), metricRegistry);
+
+    @AfterEach
+    void tearDown() {
+        DnsCacheManipulator.clearDnsCache();
+    }
+
+    @Test
+    void testResolvesPrefetchedHosts() throws Exception {
+        DnsCacheManipulator.setDnsCache("zk1", "10.0.0.1");
+        DnsCacheManipulator.setDnsCache("zk2", "10.0.0.2");
+        DnsCacheManipulator.setDnsCache("zk3", "10.0.0.3");
+        resolver.prefetch(List.of("zk1", "zk2", "zk3"));
+        Assertions.assertEquals("10.0.0.1", resolver.resolve("zk1").getHostAddress());
+        Assertions.assertEquals("10.0.0.2", resolver.resolve("zk2").getHostAddress());
+        Assertions.assertEquals("10.0.0.3", resolver.resolve("zk3").getHostAddress());
+        Assertions.assertEquals(3, lookups());
+    }
+
+    @Test
+    void testResolvedAddressesAreCached() throws Exception {
+        DnsCacheManipulator.setDnsCache("custom-host", "10.0.0.1");
+        Assertions.assertEquals("10.0.0.1", resolver.resolve("custom-host").getHostAddress());
+        DnsCacheManipulator.setDnsCache("custom-host", "10.0.0.2");
+        Assertions.assertEquals("10.0.0.1", resolver.resolve("custom-host").getHostAddress());
+        Assertions.assertEquals(1, lookups());
+    }
+
+    @Test
+    void testFailedLookupsAreRetried() throws Exception {
+        val host = UUID.randomUUID().toString();
+        Assertions.assertThrows(UnknownHostException.class, () -> resolver.resolve(host));
+        DnsCacheManipulator.setDnsCache(host, "10.0.0.1");
+        Assertions.assertEquals("10.0.0.1", resolver.resolve(host).getHostAddress());
+    }
+
+    private long lookups() {
+        return metricRegistry.timer(MetricRegistry.name(HostAddressResolver.class, "lookups")).getCount();
+    }
+}
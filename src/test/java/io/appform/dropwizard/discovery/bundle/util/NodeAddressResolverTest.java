@@ -0,0 +1,82 @@
+package io.appform.dropwizard.discovery.bundle.util;
+
+import com.alibaba.dcm.DnsCacheManipulator;
+import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import io.appform.ranger.core.model.ServiceNode;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link NodeAddressResolver}
+ */
+class NodeAddressResolverTest {
+    private final NodeAddressResolver resolver = new NodeAddressResolver();
+
+    @AfterEach
+    void tearDown() {
+        DnsCacheManipulator.clearDnsCache();
+    }
+
+    @Test
+    void testPrefersPublishedAddress() throws Exception {
+        val host = "unresolvable-" + UUID.randomUUID();
+        val address = resolver.resolve(node(host, "address:10.0.0.1"));
+        Assertions.assertEquals("10.0.0.1", address.getHostAddress());
+        Assertions.assertEquals(host, address.getHostName());
+        Assertions.assertSame(address, resolver.resolve(node(host, "address:10.0.0.1")));
+    }
+
+    @Test
+    void testReResolvesWhenNodeDataChanges() throws Exception {
+        val first = resolver.resolve(node("host1", "address:10.0.0.1"));
+        val second = resolver.resolve(node("host1", "address:10.0.0.2"));
+        Assertions.assertEquals("10.0.0.1", first.getHostAddress());
+        Assertions.assertEquals("10.0.0.2", second.getHostAddress());
+    }
+
+    @Test
+    void testFallsBackToHostName() throws Exception {
+        DnsCacheManipulator.setDnsCache("host1", "10.0.0.3");
+        Assertions.assertEquals("10.0.0.3", resolver.resolve(node("host1", "other")).getHostAddress());
+        Assertions.assertEquals("10.0.0.3", resolver.resolve(node("host1", "address:not-an-ip")).getHostAddress());
+        Assertions.assertEquals("10.0.0.3", resolver.resolve(new ServiceNode<>("host1",
+                                                                                8080,
+                                                                                null,
+                                                                                HealthcheckStatus.healthy,
+                                                                                System.currentTimeMillis(),
+                                                                                "http")).getHostAddress());
+    }
+
+    @Test
+    void testForgetsNodes() throws Exception {
+        val bounded = new NodeAddressResolver(2, Duration.ofMinutes(10));
+        for (int i = 0; i < 10; i++) {
+            bounded.resolve(node("host" + i, "address:10.0.0." + i));
+        }
+        Assertions.assertTrue(bounded.size() <= 2);
+
+        val expiring = new NodeAddressResolver(100, Duration.ofMillis(50));
+        expiring.resolve(node("host1", "address:10.0.0.1"));
+        Assertions.assertEquals(1, expiring.size());
+        Thread.sleep(100);
+        Assertions.assertEquals(0, expiring.size());
+    }
+
+    private static ServiceNode<ShardInfo> node(String host, String tag) {
+        return new ServiceNode<>(host,
+                                 8080,
+                                 ShardInfo.builder()
+                                         .environment("testing")
+                                         .tags(Set.of(tag))
+                                         .build(),
+                                 HealthcheckStatus.healthy,
+                                 System.currentTimeMillis(),
+                                 "http");
+    }
+}